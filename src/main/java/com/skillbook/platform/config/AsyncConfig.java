@@ -0,0 +1,96 @@
+package com.skillbook.platform.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    /**
+     * Executor for image decoding and resizing. Kept small and bounded so a burst of
+     * uploads cannot starve request threads of CPU. The caller is an upload request, so
+     * when the queue is full the job is dropped rather than run on the request thread;
+     * photos without variants are served as the original. Dropped jobs are logged and
+     * counted in {@code photos.thumbnails.rejected}.
+     *
+     * @param threads number of worker threads
+     * @param queueCapacity number of jobs that may wait for a worker
+     * @param meterRegistry registry for the rejection counter
+     * @return the executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor thumbnailExecutor(
+            @Value("${photos.thumbnails.threads:2}") int threads,
+            @Value("${photos.thumbnails.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("photos.thumbnails.rejected")
+                .description("Variant generation jobs dropped because the queue was full")
+                .register(meterRegistry);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            log.warn("Thumbnail queue full, dropping variant generation");
+        });
+        return executor;
+    }
+
+    /**
+     * Executor for BCrypt hashing during user imports. BCrypt is CPU-bound by design, so the
+     * pool matches the core count by default; the importer only queues one chunk at a time.
+     * Jobs are only ever submitted from the import worker, never from a request thread, so
+     * running an overflowing job on the caller just slows the import down.
+     *
+     * @param threads number of worker threads, or 0 for one per available processor
+     * @param chunkSize import chunk size, used as the queue bound
+     * @return the executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${users.import.hash-threads:0}") int threads,
+            @Value("${users.import.chunk-size:500}") int chunkSize) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(chunkSize);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Executor that runs CSV user imports, one at a time. Further uploads wait in a short
+     * queue; beyond that they are rejected so callers can retry later.
+     *
+     * @param queueCapacity number of imports that may wait
+     * @return the executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor userImportExecutor(
+            @Value("${users.import.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("user-import-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+}
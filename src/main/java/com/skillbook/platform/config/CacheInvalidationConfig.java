@@ -0,0 +1,51 @@
+package com.skillbook.platform.config;
+
+import com.skillbook.platform.invalidation.InvalidationListener;
+import com.skillbook.platform.invalidation.InvalidationPublisher;
+import com.skillbook.platform.invalidation.LocalCacheInvalidator;
+import com.skillbook.platform.service.CourseCatalogCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Keeps in-process caches consistent across nodes with Postgres {@code LISTEN/NOTIFY} when
+ * {@code cache.invalidation.enabled} is true. Needs nothing beyond the primary database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationConfig {
+
+    @Bean
+    public InvalidationPublisher invalidationPublisher(
+            JdbcTemplate jdbcTemplate,
+            @Value("${cache.invalidation.channel}") String channel) {
+        return new InvalidationPublisher(jdbcTemplate, channel);
+    }
+
+    @Bean
+    public LocalCacheInvalidator localCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                                       CourseCatalogCache catalogCache,
+                                                       InvalidationPublisher publisher) {
+        return new LocalCacheInvalidator(entityManagerFactory, catalogCache, publisher.getNode());
+    }
+
+    @Bean
+    public InvalidationListener invalidationListener(
+            DataSourceProperties dataSourceProperties,
+            LocalCacheInvalidator invalidator,
+            @Value("${cache.invalidation.channel}") String channel,
+            @Value("${cache.invalidation.poll-interval:10s}") Duration pollInterval,
+            @Value("${cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        return new InvalidationListener(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+                channel, invalidator, pollInterval, reconnectDelay);
+    }
+}
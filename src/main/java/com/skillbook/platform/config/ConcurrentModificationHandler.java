@@ -0,0 +1,35 @@
+package com.skillbook.platform.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers a version conflict detected at commit time. The request's version check passed,
+ * but another writer committed first; a client that sent {@code If-Match} gets the same 412
+ * as for a stale ETag, any other client a 409.
+ */
+@RestControllerAdvice
+public class ConcurrentModificationHandler {
+
+    /**
+     * Handles an optimistic locking failure that reached the controller.
+     *
+     * @param e       the exception
+     * @param request the current request
+     * @return a 412 problem if the request was conditional, a 409 problem otherwise
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail onConcurrentModification(OptimisticLockingFailureException e,
+                                                  HttpServletRequest request) {
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null
+                ? HttpStatus.PRECONDITION_FAILED
+                : HttpStatus.CONFLICT;
+        return ProblemDetail.forStatusAndDetail(status,
+                "The resource was modified concurrently; fetch it again and retry");
+    }
+}
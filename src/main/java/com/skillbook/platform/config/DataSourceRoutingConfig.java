@@ -0,0 +1,101 @@
+package com.skillbook.platform.config;
+
+import com.skillbook.platform.datasource.ReadReplicaProperties;
+import com.skillbook.platform.datasource.ReadWriteRoutingDataSource;
+import com.skillbook.platform.datasource.PrimaryPin;
+import com.skillbook.platform.datasource.PrimaryPinFilter;
+import com.skillbook.platform.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single auto-configured data source with primary/replica routing when
+ * {@code datasource.routing.enabled} is true. Without it the application talks to
+ * {@code spring.datasource} only, exactly as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class DataSourceRoutingConfig {
+
+    private static final long REPLICA_CONNECTION_TIMEOUT_MS = 2_000;
+
+    @Bean
+    public PrimaryPin primaryPin(ReadReplicaProperties properties) {
+        return new PrimaryPin(properties.stickyWindow(), properties.pinSecret(),
+                Clock.systemUTC());
+    }
+
+    /**
+     * Reads the pin cookie ahead of Spring Security, whose authentication already queries
+     * the database.
+     *
+     * @param primaryPin the read-your-writes pin
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<PrimaryPinFilter> primaryPinFilter(PrimaryPin primaryPin) {
+        FilterRegistrationBean<PrimaryPinFilter> registration =
+                new FilterRegistrationBean<>(new PrimaryPinFilter(primaryPin));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties primaryProperties,
+                                                        ReadReplicaProperties properties,
+                                                        PrimaryPin primaryPin) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReadReplicaProperties.Replica replica : properties.replicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(replica.name());
+            pool.setJdbcUrl(replica.url());
+            pool.setUsername(replica.username());
+            pool.setPassword(replica.password());
+            // a dead replica should fail fast and drop out of rotation, not stall reads
+            pool.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT_MS);
+            pool.setInitializationFailTimeout(-1);
+            pool.setReadOnly(true);
+            replicas.put(replica.name(), pool);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, primaryPin);
+    }
+
+    /**
+     * The data source JPA, Flyway and JDBC use. Connections are only fetched from the router
+     * at the first statement, once the transaction's read-only flag is set.
+     *
+     * @param routingDataSource the primary/replica router
+     * @return the lazy proxy in front of the router
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadWriteRoutingDataSource routingDataSource,
+                                               ReadReplicaProperties properties) {
+        return new ReplicaLagMonitor(routingDataSource, properties.maxLag(),
+                ReplicaLagMonitor.LAG_SQL);
+    }
+}
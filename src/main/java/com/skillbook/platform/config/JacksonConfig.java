@@ -1,30 +1,90 @@
 package com.skillbook.platform.config;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 @Configuration
-public class JacksonConfig {
+public class JacksonConfig implements WebMvcConfigurer {
 
     private static final Logger log = LoggerFactory.getLogger(JacksonConfig.class);
 
+    /**
+     * The shared mapper. Responses are built from DTOs only, so no Hibernate module is
+     * registered; property access goes through Blackbird's generated accessors.
+     *
+     * @return the application's ObjectMapper
+     */
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
-        
-        // Configure Hibernate module
-        Hibernate6Module hibernate6Module = new Hibernate6Module();
-        hibernate6Module.configure(Hibernate6Module.Feature.FORCE_LAZY_LOADING, false);
-        mapper.registerModule(hibernate6Module);
-        
+
+        // Generated accessors instead of reflective getter calls
+        mapper.registerModule(new BlackbirdModule());
+
         // Add Java 8 date/time support
         mapper.registerModule(new JavaTimeModule());
-        
+
         return mapper;
     }
-} 
\ No newline at end of file
+
+    /**
+     * JSON converter that writes the common DTO types with the writers prepared in
+     * {@link JsonWriters}. Replaces the converter Spring Boot would otherwise create.
+     *
+     * @param objectMapper the shared mapper
+     * @param jsonWriters  the prepared writers
+     * @return the JSON message converter
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+            ObjectMapper objectMapper, JsonWriters jsonWriters) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, MimeType mimeType,
+                                                   JavaType javaType) {
+                if (writer.getConfig().getActiveView() != null) {
+                    return writer;
+                }
+                ObjectWriter prepared = jsonWriters.forType(javaType);
+                return prepared != null ? prepared : writer;
+            }
+        };
+    }
+
+    /**
+     * Adds CBOR and Smile converters that share the modules and settings of
+     * {@link #objectMapper()}. They are appended after the JSON converter, so JSON stays the
+     * default and the binary formats are only used when the client asks for them.
+     *
+     * @param converters the converters configured so far
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        ObjectMapper mapper = objectMapper();
+        // drop the defaults Spring registers on its own, they use a differently configured mapper
+        converters.removeIf(converter ->
+                converter instanceof MappingJackson2CborHttpMessageConverter
+                        || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                mapper.copyWith(new CBORFactory())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                mapper.copyWith(new SmileFactory())));
+    }
+}
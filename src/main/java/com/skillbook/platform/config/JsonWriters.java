@@ -0,0 +1,72 @@
+package com.skillbook.platform.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.skillbook.platform.dto.CourseDto;
+import com.skillbook.platform.dto.UserDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ObjectWriter}s for the DTOs on the hottest response paths, resolved once at startup.
+ * Each writer carries its root serializer, so writing skips the per-call serializer lookup,
+ * and the Blackbird accessors for these types are generated before the first request.
+ */
+@Component
+public class JsonWriters {
+
+    private final ObjectWriter course;
+
+    private final ObjectWriter courseList;
+
+    private final ObjectWriter user;
+
+    private final ObjectWriter userList;
+
+    private final Map<JavaType, ObjectWriter> byType;
+
+    public JsonWriters(ObjectMapper objectMapper) {
+        JavaType courseType = objectMapper.constructType(CourseDto.class);
+        JavaType courseListType = objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, CourseDto.class);
+        JavaType userType = objectMapper.constructType(UserDto.class);
+        JavaType userListType = objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, UserDto.class);
+
+        this.course = objectMapper.writerFor(courseType);
+        this.courseList = objectMapper.writerFor(courseListType);
+        this.user = objectMapper.writerFor(userType);
+        this.userList = objectMapper.writerFor(userListType);
+        this.byType = Map.of(courseType, course, courseListType, courseList,
+                userType, user, userListType, userList);
+    }
+
+    public ObjectWriter course() {
+        return course;
+    }
+
+    public ObjectWriter courseList() {
+        return courseList;
+    }
+
+    public ObjectWriter user() {
+        return user;
+    }
+
+    public ObjectWriter userList() {
+        return userList;
+    }
+
+    /**
+     * Looks up the prepared writer for a declared response type.
+     *
+     * @param type the declared type of the value being written
+     * @return the prepared writer, or null if the type has none
+     */
+    public ObjectWriter forType(JavaType type) {
+        return byType.get(type);
+    }
+}
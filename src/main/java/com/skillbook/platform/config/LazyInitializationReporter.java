@@ -0,0 +1,45 @@
+package com.skillbook.platform.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.LazyInitializationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports lazy loads that happen after the owning transaction has ended. With
+ * open-session-in-view off these fail instead of silently running extra queries; each one
+ * means a service method's fetch plan is missing an association. The failure is logged with
+ * its stack trace, counted in {@code jpa.lazy.initialization.failures}, and answered with a
+ * plain 500 so no entity state leaks into the response.
+ */
+@RestControllerAdvice
+public class LazyInitializationReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyInitializationReporter.class);
+
+    private final Counter failures;
+
+    public LazyInitializationReporter(MeterRegistry meterRegistry) {
+        this.failures = Counter.builder("jpa.lazy.initialization.failures")
+                .description("Lazy loads attempted outside a transaction")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Handles a lazy load outside a transaction, also when it is wrapped, e.g. by Jackson.
+     *
+     * @param e the exception
+     * @return a 500 problem without details
+     */
+    @ExceptionHandler(LazyInitializationException.class)
+    public ProblemDetail onLazyInitialization(LazyInitializationException e) {
+        failures.increment();
+        log.error("Lazy load outside a transaction; add the association to the fetch plan", e);
+        return ProblemDetail.forStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
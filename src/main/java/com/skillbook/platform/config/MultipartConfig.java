@@ -0,0 +1,37 @@
+package com.skillbook.platform.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Derives the container's multipart limits from {@code photos.max-size}, the only upload the
+ * API takes as multipart. Raising the photo limit raises these with it, so an oversized photo
+ * still gets the service's 413 rather than a container rejection at some other size.
+ */
+@Configuration
+public class MultipartConfig {
+
+    /** Room for the profile form's JSON part and the multipart framing. */
+    static final DataSize FORM_OVERHEAD = DataSize.ofMegabytes(1);
+
+    /**
+     * Replaces Spring Boot's multipart config; location and file size threshold still come
+     * from {@code spring.servlet.multipart}.
+     *
+     * @param multipart    the {@code spring.servlet.multipart} properties
+     * @param maxPhotoSize the largest accepted photo
+     * @return the multipart config registered with the dispatcher servlet
+     */
+    @Bean
+    public MultipartConfigElement multipartConfigElement(
+            MultipartProperties multipart,
+            @Value("${photos.max-size:5MB}") DataSize maxPhotoSize) {
+        long maxRequestSize = maxPhotoSize.toBytes() + FORM_OVERHEAD.toBytes();
+        return new MultipartConfigElement(multipart.getLocation(), maxPhotoSize.toBytes(),
+                maxRequestSize, (int) multipart.getFileSizeThreshold().toBytes());
+    }
+}
@@ -1,19 +1,33 @@
 package com.skillbook.platform.controller;
 
+import com.skillbook.platform.dto.CourseBatchDto;
+import com.skillbook.platform.dto.CourseBulkResultDto;
+import com.skillbook.platform.dto.CourseDeltaDto;
 import com.skillbook.platform.dto.CourseDto;
-import com.skillbook.platform.dto.UserDto;
+import com.skillbook.platform.enums.ExportFormat;
+import com.skillbook.platform.service.CourseCatalogCache;
+import com.skillbook.platform.service.CourseCatalogStreamer;
+import com.skillbook.platform.service.CourseChangeFeed;
 import com.skillbook.platform.service.CourseService;
 import com.skillbook.platform.service.UserService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.prepost.PreAuthorize;
 import jakarta.validation.Valid;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for managing courses.
@@ -30,27 +44,188 @@ public class CourseController {
 
     private static final Logger log = LoggerFactory.getLogger(CourseController.class);
 
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     private final CourseService courseService;
 
     private final UserService userService;
 
-    public CourseController(CourseService courseService, UserService userService) {
+    private final CourseCatalogStreamer catalogStreamer;
+
+    private final CourseCatalogCache catalogCache;
+
+    private final CourseChangeFeed changeFeed;
+
+    public CourseController(CourseService courseService, UserService userService,
+                            CourseCatalogStreamer catalogStreamer,
+                            CourseCatalogCache catalogCache,
+                            CourseChangeFeed changeFeed) {
         this.courseService = courseService;
         this.userService = userService;
+        this.catalogStreamer = catalogStreamer;
+        this.catalogCache = catalogCache;
+        this.changeFeed = changeFeed;
     }
 
     /**
      * Retrieves all courses in the system.
+     * The response is served from pre-serialized bytes, gzip-compressed when the client sends
+     * {@code Accept-Encoding: gzip}.
      *
-     * @return ResponseEntity containing a list of all courses
+     * @param acceptEncoding the client's accepted content codings
+     * @return ResponseEntity containing the JSON list of all courses
      * @HTTP 200 OK with the list of courses
      */
     @GetMapping
-    public ResponseEntity<List<CourseDto>> getAllCourses() {
+    public ResponseEntity<byte[]> getAllCourses(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding) {
         log.info("Fetching courses...");
+        CourseCatalogCache.Snapshot catalog = catalogCache.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(catalog.gzip().length)
+                    .body(catalog.gzip());
+        }
+        return response
+                .contentLength(catalog.json().length)
+                .body(catalog.json());
+    }
+
+    /**
+     * Retrieves all courses in a binary Jackson format for clients that ask for one with
+     * {@code Accept: application/cbor} or {@code Accept: application/x-jackson-smile}.
+     * The document has the same structure as the JSON catalog.
+     *
+     * @return ResponseEntity containing a list of all courses
+     * @HTTP 200 OK with the list of courses
+     */
+    @GetMapping(produces = {"application/cbor", "application/x-jackson-smile"})
+    public ResponseEntity<List<CourseDto>> getAllCoursesBinary() {
+        log.info("Fetching courses (binary)...");
         return ResponseEntity.ok(courseService.getAllCourses());
     }
 
+    /**
+     * Streams all courses as a JSON array, e.g. {@code GET /courses?stream=true}.
+     * Rows are written to the response as they are read, so large catalogs are served with
+     * flat memory and a low time to first byte. The payload matches {@link #getAllCourses(String)}.
+     *
+     * @return ResponseEntity whose body writes the catalog to the response stream
+     * @HTTP 200 OK with the streamed list of courses
+     */
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllCourses() {
+        log.info("Streaming courses...");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogStreamer::writeJson);
+    }
+
+    /**
+     * Returns the courses created, updated or deleted after a catalog version, e.g.
+     * {@code GET /courses/changes?since=41}. Clients keep the returned {@code version} and
+     * send it as {@code since} next time; {@code since=0} returns the whole catalog.
+     *
+     * @param since the catalog version the client last synced to
+     * @return ResponseEntity containing the changed courses, deleted ids and new version
+     * @HTTP 200 OK with the delta
+     * @HTTP 400 Bad Request if since is negative
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<CourseDeltaDto> getCourseChanges(
+            @RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(courseService.getChangesSince(since));
+    }
+
+    /**
+     * Subscribes to catalog changes as Server-Sent Events. Each {@code course} event carries a
+     * compact JSON payload with the change type and course id (plus the enrolled count for
+     * enrollment changes); clients refetch only what they display. A comment line is sent
+     * periodically as a heartbeat.
+     *
+     * @return the event stream
+     * @HTTP 200 OK with a {@code text/event-stream} body that stays open
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCourseChanges() {
+        return changeFeed.subscribe();
+    }
+
+    /**
+     * Exports the whole catalog for reporting, e.g. {@code GET /courses/export?format=csv}.
+     * Rows are streamed from a database cursor, so the export size does not affect heap usage.
+     * The body is gzip-compressed when the client sends {@code Accept-Encoding: gzip}.
+     *
+     * @param format         {@code ndjson} (default) or {@code csv}
+     * @param acceptEncoding the client's accepted content codings
+     * @return ResponseEntity whose body writes the export to the response stream
+     * @HTTP 200 OK with the streamed export as an attachment
+     * @HTTP 400 Bad Request if the format is not supported
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCourses(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported export format: " + format);
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("courses." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(out -> catalogStreamer.export(out, exportFormat));
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(out -> {
+                    GZIPOutputStream zipped = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                    catalogStreamer.export(zipped, exportFormat);
+                    zipped.finish();
+                });
+    }
+
+    /**
+     * Retrieves several courses by id in one round trip, e.g. {@code GET /courses?ids=1,2,3}.
+     *
+     * @param ids the course ids
+     * @return ResponseEntity containing the found courses in request order and the missing ids
+     * @HTTP 200 OK with the batch result, even if some ids are unknown
+     * @HTTP 400 Bad Request if too many ids are requested
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<CourseBatchDto> getCoursesByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(courseService.getCoursesByIds(ids));
+    }
+
+    /**
+     * Retrieves several courses by id; POST variant for id lists too long for a query string.
+     *
+     * @param ids the course ids
+     * @return ResponseEntity containing the found courses in request order and the missing ids
+     * @HTTP 200 OK with the batch result, even if some ids are unknown
+     * @HTTP 400 Bad Request if too many ids are requested
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<CourseBatchDto> getCoursesByIdsBatch(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(courseService.getCoursesByIds(ids));
+    }
+
     /**
      * Retrieves courses filtered by category.
      *
@@ -65,7 +240,8 @@ public class CourseController {
     }
 
     /**
-     * Retrieves a specific course by its ID.
+     * Retrieves a specific course by its ID. The ETag carries the course version, for use
+     * as {@code If-Match} when updating it.
      *
      * @param id the ID of the course to retrieve
      * @return the requested Course object
@@ -74,7 +250,7 @@ public class CourseController {
     public ResponseEntity<CourseDto> getCourseById(@PathVariable Long id) {
         try {
             CourseDto course = courseService.getCourseById(id);
-            return ResponseEntity.ok(course);
+            return VersionETags.ok(course.getVersion()).body(course);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -107,6 +283,66 @@ public class CourseController {
         }
     }
 
+    /**
+     * Creates many courses at once, e.g. when an instructor migrates a schedule from another
+     * platform. All items are checked before anything is written, and the batch is created
+     * entirely or not at all.
+     *
+     * @param dtos the courses to create
+     * @return ResponseEntity containing the created ids, or the errors of each rejected item
+     * @HTTP 201 Created with the new course ids in request order
+     * @HTTP 400 Bad Request with per-item errors if any course is invalid; nothing is created
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<CourseBulkResultDto> createCourses(@RequestBody List<CourseDto> dtos) {
+        CourseBulkResultDto result = courseService.createCourses(dtos);
+        HttpStatus status = result.getErrors().isEmpty()
+                ? HttpStatus.CREATED
+                : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    /**
+     * Replaces a course's details. Send the ETag from {@code GET /courses/{id}} as
+     * {@code If-Match} so that an edit made by someone else in the meantime is not
+     * overwritten.
+     *
+     * @param id      the ID of the course to update
+     * @param dto     the new course details
+     * @param ifMatch the ETag the client's copy was read with, optional
+     * @return ResponseEntity containing the updated course, with its new ETag
+     * @HTTP 200 OK with the updated course
+     * @HTTP 400 Bad Request if validation fails
+     * @HTTP 404 Not Found if the course does not exist
+     * @HTTP 412 Precondition Failed if the course changed since the client read it
+     */
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<CourseDto> updateCourse(
+            @PathVariable Long id,
+            @Valid @RequestBody CourseDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        dto.setVersion(VersionETags.expectedVersion(ifMatch));
+        CourseDto updated = courseService.updateCourse(id, dto);
+        return VersionETags.ok(updated.getVersion()).body(updated);
+    }
+
+    /**
+     * Deletes a course and removes it from every learner's enrollments.
+     *
+     * @param id the ID of the course to delete
+     * @return ResponseEntity with no content
+     * @HTTP 204 No Content if the course was deleted
+     * @HTTP 404 Not Found if the course does not exist
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<Void> deleteCourse(@PathVariable Long id) {
+        courseService.deleteCourse(id);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Enrolls the currently authenticated user in the specified course.
      *
@@ -114,6 +350,8 @@ public class CourseController {
      * @param authentication the Spring Security authentication object containing the current user's
      *                       identity
      * @return ResponseEntity indicating success or failure of the enrollment
+     * @HTTP 200 OK if the user is enrolled, including when they already were
+     * @HTTP 404 Not Found if the course does not exist
      */
     @PostMapping("/{courseId}/enroll")
     @PreAuthorize("hasRole('LEARNER')")
@@ -122,18 +360,43 @@ public class CourseController {
         // gets the authenticated username
         String username = authentication.getName();
 
-        UserDto user = userService.findByUsername(username);
-        CourseDto course = courseService.getCourseById(courseId);
-
-
-        if (user.getEnrolledCourses() == null) {
-            user.setEnrolledCourses(new ArrayList<>());
-        }
-        user.getEnrolledCourses().add(course);
-        userService.updateUser(user);  // persist the enrollment
+        // retried on a concurrent update of the same user
+        userService.enroll(username, courseId);
 
         return ResponseEntity.ok("Enrolled successfully in course ID " + courseId);
     }
 
-
+    /**
+     * Checks whether an {@code Accept-Encoding} header allows a gzip-coded response.
+     *
+     * @param acceptEncoding the header value, possibly null
+     * @return true if gzip (or {@code *}) is listed with a non-zero quality
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!name.equals("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
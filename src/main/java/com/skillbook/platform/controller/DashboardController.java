@@ -1,16 +1,18 @@
 package com.skillbook.platform.controller;
 
 import com.skillbook.platform.dto.UserDto;
-import com.skillbook.platform.model.User;
-import com.skillbook.platform.repository.UserRepository;
+import com.skillbook.platform.dto.UserProfileDto;
+import com.skillbook.platform.service.PhotoService;
+import com.skillbook.platform.service.ThumbnailService;
+import com.skillbook.platform.service.UserService;
+import com.skillbook.platform.storage.PhotoStore;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.security.Principal;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 /**
  * Controller handling user dashboard functionality.
@@ -25,7 +27,13 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 public class DashboardController {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
+
+    @Autowired
+    private PhotoService photoService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
 
 
     /**
@@ -35,35 +43,39 @@ public class DashboardController {
      *
      * @param userDto JSON user details
      * @param photo optional profile photo file
+     * @param ifMatch the ETag of the profile the form was filled from, optional
      * @param principal the authenticated user's identity
-     * @return ResponseEntity with update status
+     * @return ResponseEntity with update status and the profile's new ETag
      * @throws Exception
      * @HTTP 200 OK if update is successful
      * @HTTP 400 Bad Request if validation fails
+     * @HTTP 412 Precondition Failed if the profile changed since the client read it
+     * @HTTP 413 Payload Too Large if the photo exceeds the configured limit
+     * @HTTP 415 Unsupported Media Type if the photo is not a supported image
      */
     @PostMapping(value = "/users/update-profile", consumes = "multipart/form-data")
     public ResponseEntity<?> updateUserProfile(
             @RequestPart("user") UserDto userDto,
             @RequestPart(value = "photo", required = false) MultipartFile photo,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Principal principal
     ) throws Exception {
-        String username = principal.getName();
-
-        // Lookup the user by username
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        // Update fields
-        user.setFirstName(userDto.getFirstName());
-        user.setLastName(userDto.getLastName());
-        user.setEmail(userDto.getEmail());
+        // checked before the photo is stored, so a stale form leaves no unreferenced blob
+        userDto.setVersion(VersionETags.expectedVersion(ifMatch));
+        userService.checkProfileVersion(principal.getName(), userDto.getVersion());
 
+        PhotoStore.StoredBlob blob = null;
         if (photo != null && !photo.isEmpty()) {
-            user.setProfilePhoto(photo.getBytes());
+            // streamed to the photo store; the upload is never buffered on the heap
+            blob = photoService.storeUpload(photo);
         }
 
-        userRepository.save(user);
-        return ResponseEntity.ok("User profile updated successfully");
+        UserProfileDto profile = userService.updateProfile(principal.getName(), userDto, blob,
+                blob != null ? photo.getContentType() : null);
+        if (blob != null) {
+            thumbnailService.generateVariantsAsync(blob.hash());
+        }
+        return VersionETags.ok(profile.getVersion()).body("User profile updated successfully");
     }
 }
 
@@ -0,0 +1,224 @@
+package com.skillbook.platform.controller;
+
+import com.skillbook.platform.repository.projection.ProfilePhotoRow;
+import com.skillbook.platform.service.PhotoService;
+import com.skillbook.platform.service.ThumbnailService;
+import com.skillbook.platform.service.UserService;
+import com.skillbook.platform.storage.PhotoStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves profile photos straight from the {@link PhotoStore}.
+ * Photos are addressed by content hash, so a URL never changes meaning and responses are
+ * cacheable forever. When the servlet container supports sendfile the file is handed to the
+ * kernel; otherwise it is copied with {@link FileChannel#transferTo}, never through a heap
+ * buffer.
+ *
+ * @author mariya-koles
+ * @version 1.0
+ * @since 2025-03
+ */
+@RestController
+public class PhotoController {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic().immutable().getHeaderValue();
+
+    /** Used while a requested variant is still being generated and the original is served. */
+    private static final String PROVISIONAL = CacheControl.maxAge(Duration.ofMinutes(1))
+            .cachePublic().getHeaderValue();
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    private final UserService userService;
+
+    private final PhotoStore photoStore;
+
+    private final ThumbnailService thumbnailService;
+
+    public PhotoController(UserService userService, PhotoStore photoStore,
+                           ThumbnailService thumbnailService) {
+        this.userService = userService;
+        this.photoStore = photoStore;
+        this.thumbnailService = thumbnailService;
+    }
+
+    /**
+     * Redirects to the content-addressed URL of a user's current profile photo.
+     *
+     * @param id   the user id
+     * @param size optional display size in pixels, passed through to the photo URL
+     * @return a redirect to {@code /photos/{hash}}
+     * @HTTP 302 Found with the photo URL
+     * @HTTP 404 Not Found if the user has no photo
+     */
+    @GetMapping("/users/{id}/photo")
+    public ResponseEntity<Void> getProfilePhoto(@PathVariable Long id,
+                                                @RequestParam(required = false) Integer size) {
+        ProfilePhotoRow photo = userService.getProfilePhoto(id);
+        URI location = UriComponentsBuilder.fromPath(UserService.photoUrl(photo.hash()))
+                .queryParamIfPresent("size", Optional.ofNullable(size))
+                .build()
+                .toUri();
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(location)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    /**
+     * Streams a photo by content hash. With {@code size} the smallest pre-sized square
+     * variant that covers it is served; the original is used until variants exist, and for
+     * sizes above the largest variant. A missing variant is queued for generation, which
+     * also covers photos whose upload-time job was dropped.
+     * Supports conditional requests via {@code If-None-Match} and single byte ranges.
+     *
+     * @param hash     the SHA-256 hash of the photo
+     * @param size     optional display size in pixels
+     * @param request  the servlet request, used for conditional and range headers
+     * @param response the servlet response the file is written to
+     * @throws IOException if the file cannot be read or written
+     * @HTTP 200 OK with the photo bytes
+     * @HTTP 206 Partial Content for a satisfiable range request
+     * @HTTP 304 Not Modified if the client's copy is current
+     * @HTTP 404 Not Found if no photo has this hash
+     * @HTTP 416 Range Not Satisfiable for an out-of-bounds range
+     */
+    @GetMapping("/photos/{hash}")
+    public void getPhoto(@PathVariable String hash,
+                         @RequestParam(required = false) Integer size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Path original;
+        try {
+            original = photoStore.resolve(hash);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Photo not found");
+        }
+        Integer variant = size != null ? thumbnailService.selectVariant(hash, size) : null;
+        Path file = variant != null ? photoStore.resolveVariant(hash, variant) : original;
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Photo not found");
+        }
+
+        // the original is served in place of a variant that is still being generated,
+        // so that response must not be cached as the final representation
+        boolean provisional = size != null && variant == null
+                && thumbnailService.hasVariantFor(size);
+        if (provisional) {
+            thumbnailService.generateVariantsAsync(hash);
+        }
+        String etag = "\"" + hash + (variant != null ? "-" + variant : "") + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, provisional ? PROVISIONAL : IMMUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        response.setContentType(variant != null ? MediaType.IMAGE_JPEG_VALUE
+                : PhotoService.detectContentType(original));
+
+        long length = Files.size(file);
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            Matcher m = RANGE.matcher(range.trim());
+            if (m.matches() && !(m.group(1).isEmpty() && m.group(2).isEmpty())) {
+                if (m.group(1).isEmpty()) {
+                    // suffix range: the last N bytes
+                    start = Math.max(0, length - Long.parseLong(m.group(2)));
+                } else {
+                    start = Long.parseLong(m.group(1));
+                    if (!m.group(2).isEmpty()) {
+                        end = Math.min(end, Long.parseLong(m.group(2)));
+                    }
+                }
+                if (start >= length || start > end) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + end + "/" + length);
+            }
+            // multi-range and malformed headers fall through to a full 200 response
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        writeFile(file, start, count, request, response);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeFile(Path file, long start, long length,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat sends the file after the handler returns, straight from the page cache
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.skillbook.platform.controller;
 
+import com.skillbook.platform.event.UsersCreatedEvent;
 import com.skillbook.platform.model.User;
 import com.skillbook.platform.repository.UserRepository;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -11,6 +13,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * Controller handling user registration functionality.
  * Provides endpoints for creating new user accounts in the system.
@@ -29,6 +33,9 @@ public class RegisterController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Processes new user registration requests.
      * Validates user input, checks for existing usernames, and securely stores user data.
@@ -53,6 +60,7 @@ public class RegisterController {
 
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UsersCreatedEvent(List.of(user.getUsername())));
         return ResponseEntity.ok("User registered successfully");
     }
 }
@@ -1,11 +1,21 @@
 package com.skillbook.platform.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.skillbook.platform.dto.CourseDto;
+import com.skillbook.platform.dto.CursorPageDto;
 import com.skillbook.platform.dto.UserDto;
+import com.skillbook.platform.dto.UserProfileDto;
 import com.skillbook.platform.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+/**
+ * REST controller for the current user's profile and enrollments.
+ * Responses are JSON unless the client asks for CBOR or Smile in its {@code Accept} header.
+ */
 @RestController
 @RequestMapping("/users")
 public class UserController {
@@ -17,28 +27,84 @@ public class UserController {
     }
 
     /**
-     * Returns the current user's full data including enrolled courses.
+     * Returns the current user's profile fields, photo URL and enrolled course count.
+     * Enrolled courses are served separately by {@link #getCurrentUserCourses}. The ETag
+     * carries the user's version, for use as {@code If-Match} when updating the profile.
      *
      * @param authentication injected by Spring Security
-     * @return the current user's UserDto
+     * @return the current user's profile
      */
     @GetMapping("/me")
-    public UserDto getCurrentUser(Authentication authentication) {
+    public ResponseEntity<UserProfileDto> getCurrentUser(Authentication authentication) {
         String username = authentication.getName();
-        return userService.findByUsername(username);
+        UserProfileDto profile = userService.getProfile(username);
+        return VersionETags.ok(profile.getVersion()).body(profile);
     }
 
+    /**
+     * Returns one page of the current user's enrolled courses.
+     *
+     * @param after          cursor from the previous page, omitted for the first page
+     * @param limit          page size, omitted for the service default
+     * @param authentication injected by Spring Security
+     * @return the page of courses and the cursor for the next one
+     */
+    @GetMapping("/me/courses")
+    public CursorPageDto<CourseDto> getCurrentUserCourses(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        return userService.getEnrolledCourses(authentication.getName(), after, limit);
+    }
+
+    /**
+     * Partially updates the current user's profile using JSON Merge Patch semantics.
+     * Members absent from the body are left unchanged.
+     *
+     * @param patch          the merge patch document
+     * @param ifMatch        the ETag the patch is based on, optional
+     * @param authentication injected by Spring Security
+     * @return the updated profile, with its new ETag
+     * @HTTP 200 OK with the updated profile
+     * @HTTP 400 Bad Request if the patch touches read-only fields
+     * @HTTP 412 Precondition Failed if the profile changed since the client read it
+     */
+    @PatchMapping(value = "/me", consumes = {"application/merge-patch+json",
+            MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<UserProfileDto> patchCurrentUser(
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
+        UserProfileDto profile = userService.patchUser(authentication.getName(), patch,
+                VersionETags.expectedVersion(ifMatch));
+        return VersionETags.ok(profile.getVersion()).body(profile);
+    }
+
+    /**
+     * Replaces the current user's profile and enrollments.
+     *
+     * @param dto            the new profile
+     * @param ifMatch        the ETag the update is based on, optional
+     * @param authentication injected by Spring Security
+     * @return the updated user, with its new ETag
+     * @HTTP 200 OK with the updated user
+     * @HTTP 412 Precondition Failed if the profile changed since the client read it
+     */
     @PutMapping("/me")
-    public ResponseEntity<UserDto> updateCurrentUser(@RequestBody UserDto dto,
-                                                     Authentication authentication) {
+    public ResponseEntity<UserDto> updateCurrentUser(
+            @RequestBody UserDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
         String username = authentication.getName();
         UserDto existing = userService.findByUsername(username);
 
         dto.setId(existing.getId());
+        dto.setVersion(VersionETags.expectedVersion(ifMatch));
 
         userService.updateUser(dto);
         UserDto updatedUser = userService.findByUsername(username);
-        return ResponseEntity.ok(updatedUser); // 200 OK with updated profile info
+        // 200 OK with updated profile info
+        return VersionETags.ok(updatedUser.getVersion()).body(updatedUser);
     }
 
 }
@@ -0,0 +1,97 @@
+package com.skillbook.platform.controller;
+
+import com.skillbook.platform.dto.UserImportStatusDto;
+import com.skillbook.platform.service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Admin endpoints for onboarding users in bulk from a CSV file.
+ * The file is sent as the raw request body rather than a multipart part, so it is never
+ * subject to the multipart size limits and is copied to disk as it arrives.
+ *
+ * @author mariya-koles
+ * @version 1.0
+ * @since 2025-03
+ */
+@RestController
+@RequestMapping("/admin/users/imports")
+@PreAuthorize("hasRole('ADMIN')")
+public class UserImportController {
+
+    private final UserImportService importService;
+
+    public UserImportController(UserImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Starts an import. The body is a CSV with the header
+     * {@code username,email,password,first_name,last_name,role}; an empty role means LEARNER.
+     *
+     * @param request the servlet request whose body is the CSV
+     * @return ResponseEntity containing the queued job, with its status URL as Location
+     * @throws IOException if the upload cannot be stored
+     * @HTTP 202 Accepted with the job status
+     * @HTTP 503 Service Unavailable if too many imports are queued
+     */
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<UserImportStatusDto> startImport(HttpServletRequest request)
+            throws IOException {
+        UserImportStatusDto job = importService.submit(request.getInputStream());
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.getJobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    /**
+     * Reports the progress of an import.
+     *
+     * @param jobId the job id
+     * @return ResponseEntity containing the job status and row counters
+     * @HTTP 200 OK with the job status
+     * @HTTP 404 Not Found if the job is unknown
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<UserImportStatusDto> getImportStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(importService.getStatus(jobId));
+    }
+
+    /**
+     * Downloads the rejected rows of a finished import as CSV ({@code line,username,error}).
+     *
+     * @param jobId the job id
+     * @return ResponseEntity streaming the error file
+     * @HTTP 200 OK with the error CSV
+     * @HTTP 404 Not Found if the job is unknown
+     * @HTTP 409 Conflict if the import is still running
+     */
+    @GetMapping("/{jobId}/errors")
+    public ResponseEntity<Resource> getImportErrors(@PathVariable String jobId) {
+        Resource errors = new FileSystemResource(importService.getErrorFile(jobId));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("import-" + jobId + "-errors.csv")
+                        .build()
+                        .toString())
+                .body(errors);
+    }
+}
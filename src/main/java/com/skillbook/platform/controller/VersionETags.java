@@ -0,0 +1,56 @@
+package com.skillbook.platform.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Strong ETags that carry an entity's optimistic-locking version, e.g. {@code "3"}. Clients
+ * send the ETag back in {@code If-Match} on PUT and PATCH; a stale one is answered with 412.
+ */
+final class VersionETags {
+
+    private static final String ANY = "*";
+
+    private VersionETags() {
+    }
+
+    /**
+     * Starts a 200 response that carries the version as its ETag.
+     *
+     * @param version the entity version, or null if unknown
+     * @return the response builder, with an ETag header if the version is known
+     */
+    static ResponseEntity.BodyBuilder ok(Long version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (version != null) {
+            response.eTag("\"" + version + "\"");
+        }
+        return response;
+    }
+
+    /**
+     * Reads the version a client expects from its {@code If-Match} header. Only a single
+     * ETag issued by {@link #ok(Long)}, or {@code *}, is accepted.
+     *
+     * @param ifMatch the header value, possibly null
+     * @return the expected version, or null when the header is absent or {@code *}
+     * @throws ResponseStatusException 412 if the header names anything but one of our ETags;
+     *                                 weak ETags never match for If-Match
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through to 412
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "If-Match does not name a version of this resource");
+    }
+}
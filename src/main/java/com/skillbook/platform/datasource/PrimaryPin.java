@@ -0,0 +1,196 @@
+package com.skillbook.platform.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Read-your-writes for clients that may hit a different node on every request. When a write
+ * transaction made for a request commits, the response carries a signed
+ * {@value #COOKIE} cookie, and requests that bring it back before it expires read from the
+ * primary, on whichever node they land. So e.g. enrolling and then listing
+ * {@code /users/me/courses} shows the new enrollment while the replicas catch up.
+ *
+ * <p>The cookie value is {@code <epoch millis>.<HMAC-SHA256>}, signed with a secret shared
+ * by all nodes, so clients cannot pin themselves to the primary for longer than a write
+ * would. Writes made outside a request, e.g. by background jobs, pin nobody.
+ */
+public class PrimaryPin {
+
+    static final String COOKIE = "primary-until";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final ThreadLocal<Exchange> CURRENT = new ThreadLocal<>();
+
+    private final Duration window;
+
+    private final SecretKeySpec key;
+
+    private final Clock clock;
+
+    public PrimaryPin(Duration window, String secret, Clock clock) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("datasource.routing.pin-secret must be set");
+        }
+        this.window = window;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.clock = clock;
+    }
+
+    /**
+     * Starts tracking a request on the current thread, pinned if it brought a valid cookie.
+     *
+     * @param request  the incoming request
+     * @param response its response, which gets the cookie once a write commits
+     */
+    void open(HttpServletRequest request, HttpServletResponse response) {
+        Instant until = null;
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    until = verify(cookie.getValue());
+                }
+            }
+        }
+        CURRENT.set(new Exchange(request.isSecure(), response, until));
+    }
+
+    /**
+     * Stops tracking the current thread's request.
+     */
+    void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Arranges for the current request's client to be pinned to the primary once the current
+     * write transaction commits. Does nothing outside a transaction or a request, and
+     * registers at most once per transaction.
+     */
+    void recordOnCommit() {
+        Exchange exchange = CURRENT.get();
+        if (exchange == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, exchange);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pin(exchange);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PrimaryPin.this);
+            }
+        });
+    }
+
+    /**
+     * Whether the current request's client wrote recently enough that its reads must see
+     * the primary.
+     *
+     * @return true if reads should go to the primary
+     */
+    boolean isPinned() {
+        Exchange exchange = CURRENT.get();
+        return exchange != null && exchange.until != null
+                && clock.instant().isBefore(exchange.until);
+    }
+
+    private void pin(Exchange exchange) {
+        Instant until = clock.instant().plus(window);
+        // later reads of this request stay on the primary too
+        exchange.until = until;
+        // a streamed response may already be on its way; the client is then not pinned
+        if (!exchange.response.isCommitted()) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, sign(until))
+                    .path("/")
+                    .maxAge(window.plusSeconds(1).toSeconds())
+                    .httpOnly(true)
+                    .secure(exchange.secure)
+                    .sameSite("Lax")
+                    .build();
+            exchange.response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+    }
+
+    /**
+     * Signs an expiry into a cookie value.
+     *
+     * @param until when the pin ends
+     * @return the cookie value
+     */
+    String sign(Instant until) {
+        String millis = Long.toString(until.toEpochMilli());
+        return millis + "." + mac(millis);
+    }
+
+    /**
+     * Reads the expiry of a cookie value this class signed.
+     *
+     * @param value the cookie value
+     * @return when the pin ends, or null if the value is malformed or its signature is wrong
+     */
+    Instant verify(String value) {
+        int dot = value.indexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        String millis = value.substring(0, dot);
+        byte[] expected = mac(millis).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = value.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(millis));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String mac(String data) {
+        try {
+            // Mac instances are not thread safe, and cheap to create
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(data.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static final class Exchange {
+
+        private final boolean secure;
+
+        private final HttpServletResponse response;
+
+        private volatile Instant until;
+
+        private Exchange(boolean secure, HttpServletResponse response, Instant until) {
+            this.secure = secure;
+            this.response = response;
+            this.until = until;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.skillbook.platform.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Makes each request's {@link PrimaryPin} cookie known to the routing data source for the
+ * duration of the request.
+ */
+public class PrimaryPinFilter extends OncePerRequestFilter {
+
+    private final PrimaryPin primaryPin;
+
+    public PrimaryPinFilter(PrimaryPin primaryPin) {
+        this.primaryPin = primaryPin;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        primaryPin.open(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            primaryPin.close();
+        }
+    }
+}
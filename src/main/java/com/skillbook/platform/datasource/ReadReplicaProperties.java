@@ -0,0 +1,36 @@
+package com.skillbook.platform.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read-replica routing settings, bound from {@code datasource.routing.*}. The primary is the
+ * regular {@code spring.datasource}.
+ *
+ * @param enabled      whether reads are routed to replicas at all
+ * @param replicas     the read replicas
+ * @param stickyWindow how long a client's reads stay on the primary after it wrote
+ * @param pinSecret    the key that signs the {@link PrimaryPin} cookie, the same on every node
+ * @param maxLag       replication lag beyond which a replica is taken out of rotation
+ */
+@ConfigurationProperties(prefix = "datasource.routing")
+public record ReadReplicaProperties(boolean enabled,
+                                    @DefaultValue List<Replica> replicas,
+                                    @DefaultValue("5s") Duration stickyWindow,
+                                    String pinSecret,
+                                    @DefaultValue("10s") Duration maxLag) {
+
+    /**
+     * Connection settings of one replica.
+     *
+     * @param name     name used in logs and as the routing key
+     * @param url      JDBC URL
+     * @param username database user
+     * @param password database password
+     */
+    public record Replica(String name, String url, String username, String password) {
+    }
+}
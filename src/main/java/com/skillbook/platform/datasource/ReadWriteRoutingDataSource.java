@@ -0,0 +1,144 @@
+package com.skillbook.platform.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a healthy read replica, round robin, and everything else
+ * to the primary. Reads fall back to the primary when every replica is out of rotation, or
+ * when the client {@link PrimaryPin wrote} within the read-your-writes window.
+ *
+ * <p>The lookup key is taken when a physical connection is fetched, so this must sit behind
+ * a {@link LazyConnectionDataSourceProxy}; otherwise the connection would be chosen before
+ * the transaction's read-only flag is known.
+ *
+ * <p>A replica may be behind, so what it returns must not outlive the transaction. A Hibernate
+ * session routed to a replica reads the second-level cache but does not put into it, and
+ * results that are kept and shared, such as the course catalog, are loaded
+ * {@link #onPrimary(Supplier) on the primary}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+
+    private final List<String> replicaNames;
+
+    private final PrimaryPin primaryPin;
+
+    private final Set<String> outOfRotation = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      PrimaryPin primaryPin) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaNames = List.copyOf(this.replicas.keySet());
+        this.primaryPin = primaryPin;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // not a bean of its own, so initialise the lookup map here
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryPin.recordOnCommit();
+            return PRIMARY;
+        }
+        if (PRIMARY_ONLY.get() != null || primaryPin.isPinned()) {
+            return PRIMARY;
+        }
+        int size = replicaNames.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String name = replicaNames.get((start + i) % size);
+            if (!outOfRotation.contains(name)) {
+                skipSecondLevelCachePuts();
+                return name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Runs reads on the primary even inside read-only transactions. For results that are
+     * cached and shared after the transaction ends, which a lagging replica would leave
+     * stale until the next change. Works the same when routing is disabled.
+     *
+     * @param reads the reads, typically a call into a read-only transactional service
+     * @param <T>   the result type
+     * @return what {@code reads} returned
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        if (PRIMARY_ONLY.get() != null) {
+            return reads.get();
+        }
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    // the transaction's Hibernate session still reads the second-level cache, but rows it
+    // loads from the replica are not put there for every other session to see
+    private static void skipSecondLevelCachePuts() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+
+    /**
+     * The configured replicas by name, for health checks.
+     *
+     * @return the replica data sources, in configuration order
+     */
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Takes a replica out of rotation or puts it back.
+     *
+     * @param name    the replica name
+     * @param healthy whether reads may be sent to it
+     */
+    public void setInRotation(String name, boolean healthy) {
+        boolean changed = healthy ? outOfRotation.remove(name) : outOfRotation.add(name);
+        if (changed) {
+            log.warn("Replica {} {} rotation", name, healthy ? "back in" : "taken out of");
+        }
+    }
+}
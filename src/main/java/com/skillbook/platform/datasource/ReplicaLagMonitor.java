@@ -0,0 +1,87 @@
+package com.skillbook.platform.datasource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Periodically measures replication lag on every replica and takes replicas that lag too far
+ * behind, have stopped streaming from the primary, or cannot be reached, out of read
+ * rotation until they recover.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Whether the replica is streaming WAL from the primary, and how many seconds its replay
+     * is behind. Having replayed everything received says nothing once the WAL receiver has
+     * disconnected, so lag only counts while streaming. A replica that is streaming and has
+     * replayed everything reports 0 lag even if the primary has been idle for a while. A
+     * server that is not a standby at all (e.g. a second local instance) reports streaming
+     * with 0 lag. {@code pg_stat_wal_receiver} only shows the status to members of
+     * {@code pg_read_all_stats}, so the replica user needs that role (or {@code pg_monitor}).
+     */
+    public static final String LAG_SQL = """
+            SELECT NOT pg_is_in_recovery()
+                       OR EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming')
+                       AS streaming,
+                   CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END AS lag_seconds
+            """;
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    private final Duration maxLag;
+
+    private final String lagSql;
+
+    public ReplicaLagMonitor(ReadWriteRoutingDataSource routingDataSource,
+                             Duration maxLag, String lagSql) {
+        this.routingDataSource = routingDataSource;
+        this.maxLag = maxLag;
+        this.lagSql = lagSql;
+    }
+
+    /**
+     * Checks every replica once and updates the rotation.
+     */
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval:5s}")
+    public void checkReplicas() {
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            routingDataSource.setInRotation(replica.getKey(),
+                    isHealthy(replica.getKey(), replica.getValue()));
+        }
+    }
+
+    private boolean isHealthy(String name, DataSource replica) {
+        try {
+            Status status = new JdbcTemplate(replica).queryForObject(lagSql,
+                    (rs, rowNum) -> new Status(rs.getBoolean(1), rs.getDouble(2)));
+            if (status == null || !status.streaming()) {
+                log.debug("Replica {} is not streaming from the primary", name);
+                return false;
+            }
+            double lag = status.lagSeconds();
+            if (lag * 1000 > maxLag.toMillis()) {
+                log.debug("Replica {} is {} s behind", name, lag);
+                return false;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Replica {} is unreachable: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private record Status(boolean streaming, double lagSeconds) {
+    }
+}
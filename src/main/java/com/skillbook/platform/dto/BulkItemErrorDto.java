@@ -0,0 +1,27 @@
+package com.skillbook.platform.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Why one item of a bulk request was rejected")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemErrorDto {
+
+    @Schema(example = "3", description = "Zero-based position of the item in the request")
+    private int index;
+
+    @Schema(example = "title", description = "Offending field, absent for whole-item errors")
+    private String field;
+
+    @Schema(example = "Title is required")
+    private String message;
+
+}
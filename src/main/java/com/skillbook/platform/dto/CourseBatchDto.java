@@ -0,0 +1,24 @@
+package com.skillbook.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Result of fetching several courses by id in one request")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseBatchDto {
+
+    @Schema(description = "Found courses, in the order their ids were requested")
+    private List<CourseDto> courses;
+
+    @Schema(example = "[7, 12]", description = "Requested ids that matched no course")
+    private List<Long> missingIds;
+
+}
@@ -0,0 +1,24 @@
+package com.skillbook.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Outcome of a bulk course creation; either every course or none is created")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseBulkResultDto {
+
+    @Schema(example = "[101, 102]", description = "Ids of the created courses, in request order")
+    private List<Long> createdIds;
+
+    @Schema(description = "Per-item validation errors; empty when the batch was created")
+    private List<BulkItemErrorDto> errors;
+
+}
@@ -0,0 +1,35 @@
+package com.skillbook.platform.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.skillbook.platform.enums.CourseChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Compact notification that a course changed")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CourseChangeDto {
+
+    @Schema(example = "UPDATED")
+    private CourseChangeType type;
+
+    @Schema(example = "1", description = "The changed course; absent for a bulk creation")
+    private Long courseId;
+
+    @Schema(example = "[101, 102, 103]", description = "Every course created by one bulk "
+            + "request; only sent in place of courseId for a bulk creation")
+    private List<Long> courseIds;
+
+    @Schema(example = "24", description = "Current number of enrolled learners; "
+            + "only sent for ENROLLMENT changes")
+    private Long enrolledCount;
+
+}
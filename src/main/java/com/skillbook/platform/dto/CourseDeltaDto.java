@@ -0,0 +1,27 @@
+package com.skillbook.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Courses changed since a catalog version, for incremental client sync")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseDeltaDto {
+
+    @Schema(description = "Courses created or updated after the requested version")
+    private List<CourseDto> courses;
+
+    @Schema(example = "[7, 12]", description = "Ids of courses deleted after the requested version")
+    private List<Long> deletedIds;
+
+    @Schema(example = "42", description = "High-water mark to send as 'since' on the next sync")
+    private long version;
+
+}
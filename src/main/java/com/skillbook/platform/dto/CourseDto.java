@@ -3,6 +3,7 @@ package com.skillbook.platform.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Min;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -60,4 +61,8 @@ public class CourseDto {
 
     private InstructorDto instructor;
 
+    // travels as the ETag / If-Match header, not in the body
+    @JsonIgnore
+    private Long version;
+
 }
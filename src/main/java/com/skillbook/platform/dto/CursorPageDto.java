@@ -0,0 +1,24 @@
+package com.skillbook.platform.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "One page of a keyset-paginated listing")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+
+    private List<T> items;
+
+    @Schema(example = "42", description = "Pass as 'after' to fetch the next page, "
+            + "null on the last page")
+    private Long nextCursor;
+
+}
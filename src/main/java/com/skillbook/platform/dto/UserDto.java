@@ -1,6 +1,7 @@
 package com.skillbook.platform.dto;
 
 import com.skillbook.platform.enums.Role;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
@@ -37,9 +38,15 @@ public class UserDto {
     @Schema(example = "Doe", description = "Last name of the user")
     private String lastName;
 
-    @Schema(description = "Profile picture binary data as byte array")
-    private byte[] profilePhoto;
+    @Schema(example = "/photos/2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824",
+            description = "URL of the profile photo, null when the user has none",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private String profilePhotoUrl;
 
     private List<CourseDto> enrolledCourses;
 
+    // travels as the ETag / If-Match header, not in the body
+    @JsonIgnore
+    private Long version;
+
 }
@@ -0,0 +1,37 @@
+package com.skillbook.platform.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.skillbook.platform.enums.ImportStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Progress of a CSV user import")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportStatusDto {
+
+    @Schema(example = "3f2b6c1e-8d0a-4c57-9a53-0d1f6f3c2a10")
+    private String jobId;
+
+    @Schema(example = "RUNNING")
+    private ImportStatus status;
+
+    @Schema(example = "12000", description = "Data rows read so far")
+    private long processedRows;
+
+    @Schema(example = "11950", description = "Users created so far")
+    private long importedRows;
+
+    @Schema(example = "50", description = "Rows rejected so far; see the error file")
+    private long failedRows;
+
+    @Schema(description = "Why the job stopped, if it failed")
+    private String failure;
+
+}
@@ -0,0 +1,48 @@
+package com.skillbook.platform.dto;
+
+import com.skillbook.platform.enums.Role;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Lightweight profile of the current user")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserProfileDto {
+
+    @Schema(example = "1", description = "User's unique ID",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private Long id;
+
+    @Schema(example = "john_doe", description = "Unique username for login")
+    private String username;
+
+    @Schema(example = "john.doe@example.com", description = "Email address of the user")
+    private String email;
+
+    @Schema(example = "LEARNER", description = "Role assigned to the user")
+    private Role role;
+
+    @Schema(example = "John", description = "First name of the user")
+    private String firstName;
+
+    @Schema(example = "Doe", description = "Last name of the user")
+    private String lastName;
+
+    @Schema(example = "/photos/2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824",
+            description = "URL of the profile photo, null when the user has none")
+    private String profilePhotoUrl;
+
+    @Schema(example = "3", description = "Number of courses the user is enrolled in")
+    private long enrolledCourseCount;
+
+    // travels as the ETag header, not in the body
+    @JsonIgnore
+    private Long version;
+
+}
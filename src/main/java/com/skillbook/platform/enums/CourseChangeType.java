@@ -0,0 +1,15 @@
+package com.skillbook.platform.enums;
+
+/**
+ * Enumeration of the kinds of change that can happen to a course.
+ */
+public enum CourseChangeType {
+    /** A new course was created. */
+    CREATED,
+    /** The details of an existing course were edited. */
+    UPDATED,
+    /** A learner enrolled in or left the course. */
+    ENROLLMENT,
+    /** The course was removed. */
+    DELETED
+}
@@ -0,0 +1,28 @@
+package com.skillbook.platform.enums;
+
+/**
+ * Enumeration of the formats the course catalog can be exported in.
+ */
+public enum ExportFormat {
+    /** Newline-delimited JSON, one course object per line. */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** RFC 4180 comma-separated values with a header row. */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
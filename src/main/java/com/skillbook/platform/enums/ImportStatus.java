@@ -0,0 +1,15 @@
+package com.skillbook.platform.enums;
+
+/**
+ * Enumeration of the states a background import job goes through.
+ */
+public enum ImportStatus {
+    /** Upload received, waiting for a worker. */
+    QUEUED,
+    /** Rows are being read and inserted. */
+    RUNNING,
+    /** Every row was processed; rejected rows are listed in the error file. */
+    COMPLETED,
+    /** The job stopped early, e.g. on an unreadable header or an I/O error. */
+    FAILED
+}
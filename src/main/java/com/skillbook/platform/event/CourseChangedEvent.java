@@ -0,0 +1,30 @@
+package com.skillbook.platform.event;
+
+import com.skillbook.platform.enums.CourseChangeType;
+
+import java.util.List;
+
+/**
+ * Published whenever courses are created, modified, deleted or gain or lose a learner, so
+ * that caches and other derived views of the catalog can refresh. A bulk creation is one
+ * event for all of its courses, so listeners handle it as a single change.
+ *
+ * @param type      what happened to the courses
+ * @param courseIds the ids of the affected courses; one id except for bulk creations
+ */
+public record CourseChangedEvent(CourseChangeType type, List<Long> courseIds) {
+
+    public CourseChangedEvent {
+        courseIds = List.copyOf(courseIds);
+    }
+
+    /**
+     * An event for a single course.
+     *
+     * @param type     what happened to the course
+     * @param courseId the id of the affected course
+     */
+    public CourseChangedEvent(CourseChangeType type, Long courseId) {
+        this(type, List.of(courseId));
+    }
+}
@@ -0,0 +1,10 @@
+package com.skillbook.platform.event;
+
+/**
+ * Published whenever a user's profile fields are modified. Course views embed instructor
+ * details, so derived catalog data may need to refresh.
+ *
+ * @param userId the id of the affected user
+ */
+public record UserChangedEvent(Long userId) {
+}
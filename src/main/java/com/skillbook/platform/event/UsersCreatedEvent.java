@@ -0,0 +1,17 @@
+package com.skillbook.platform.event;
+
+import java.util.List;
+
+/**
+ * Published when users are inserted, once per registration and once per imported chunk.
+ * A new user is in no cache yet, but a cached lookup of its username may still hold the
+ * empty result from before it existed.
+ *
+ * @param usernames the usernames of the new users
+ */
+public record UsersCreatedEvent(List<String> usernames) {
+
+    public UsersCreatedEvent {
+        usernames = List.copyOf(usernames);
+    }
+}
@@ -0,0 +1,124 @@
+package com.skillbook.platform.invalidation;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Holds one dedicated {@code LISTEN} connection to the primary database, outside the pool,
+ * and hands every notice to the {@link LocalCacheInvalidator}. Notices sent while the
+ * connection is down are lost, so each (re)connect flushes the local caches.
+ *
+ * <p>Notifications are not replicated to standbys, which is why this always connects to
+ * {@code spring.datasource} and never to a read replica.
+ */
+public class InvalidationListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationListener.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final String url;
+
+    private final String username;
+
+    private final String password;
+
+    private final String channel;
+
+    private final LocalCacheInvalidator invalidator;
+
+    private final Duration pollInterval;
+
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public InvalidationListener(String url, String username, String password, String channel,
+                                LocalCacheInvalidator invalidator, Duration pollInterval,
+                                Duration reconnectDelay) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid NOTIFY channel name: " + channel);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.invalidator = invalidator;
+        this.pollInterval = pollInterval;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = Thread.ofPlatform()
+                .name("cache-invalidation-listener")
+                .daemon()
+                .start(this::run);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listen(connection);
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection: {}",
+                            e.getMessage());
+                }
+            }
+            try {
+                Thread.sleep(reconnectDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        }
+        invalidator.flushAll("invalidation listener connected");
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        int timeoutMillis = (int) pollInterval.toMillis();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(timeoutMillis);
+            if (notifications == null || notifications.length == 0) {
+                // a silently dropped connection would otherwise just look like a quiet channel
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("LISTEN connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                invalidator.apply(notification.getParameter());
+            }
+        }
+    }
+}
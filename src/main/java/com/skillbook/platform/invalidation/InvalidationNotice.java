@@ -0,0 +1,108 @@
+package com.skillbook.platform.invalidation;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+/**
+ * One committed transaction's worth of cache-relevant changes, as sent over
+ * {@code NOTIFY}. The wire form is {@code node/sequence/courseIds/userIds/created}, e.g.
+ * {@code 3f2a9c1e/42/7,9//} for a transaction that changed courses 7 and 9,
+ * {@code 3f2a9c1e/43///courses,users} for one that created courses and users, or
+ * {@code 3f2a9c1e/44/*} when the change set was too large to list and receivers should drop
+ * everything. New rows are in nobody's entity cache, so creations are sent as flags rather
+ * than as ids; only cached queries and the catalog go stale. The trailing part may be
+ * missing.
+ *
+ * @param node           the id of the node that committed the change
+ * @param sequence       the per-node notice number, 1 for the node's first notice
+ * @param courseIds      ids of updated or deleted courses
+ * @param userIds        ids of updated users
+ * @param coursesCreated true if courses were created
+ * @param usersCreated   true if users were created
+ * @param everything     true if receivers should flush all caches instead of individual ids
+ */
+public record InvalidationNotice(String node, long sequence, Set<Long> courseIds,
+                                 Set<Long> userIds, boolean coursesCreated,
+                                 boolean usersCreated, boolean everything) {
+
+    private static final String SEPARATOR = "/";
+
+    private static final String EVERYTHING = "*";
+
+    private static final String COURSES = "courses";
+
+    private static final String USERS = "users";
+
+    /**
+     * A notice asking receivers to flush all caches.
+     *
+     * @param node     the sending node
+     * @param sequence the notice number
+     * @return the notice
+     */
+    public static InvalidationNotice everything(String node, long sequence) {
+        return new InvalidationNotice(node, sequence, Set.of(), Set.of(), false, false, true);
+    }
+
+    /**
+     * Encodes the notice as a {@code NOTIFY} payload.
+     *
+     * @return the payload text
+     */
+    public String encode() {
+        String head = node + SEPARATOR + sequence + SEPARATOR;
+        if (everything) {
+            return head + EVERYTHING;
+        }
+        StringJoiner created = new StringJoiner(",");
+        if (coursesCreated) {
+            created.add(COURSES);
+        }
+        if (usersCreated) {
+            created.add(USERS);
+        }
+        return head + join(courseIds) + SEPARATOR + join(userIds) + SEPARATOR + created;
+    }
+
+    /**
+     * Parses a {@code NOTIFY} payload produced by {@link #encode()}.
+     *
+     * @param payload the payload text
+     * @return the notice
+     * @throws IllegalArgumentException if the payload is malformed
+     */
+    public static InvalidationNotice parse(String payload) {
+        String[] parts = payload.split(SEPARATOR, -1);
+        try {
+            if (parts.length == 3 && EVERYTHING.equals(parts[2])) {
+                return everything(parts[0], Long.parseLong(parts[1]));
+            }
+            if (parts.length == 4 || parts.length == 5) {
+                Set<String> created = parts.length == 5 && !parts[4].isEmpty()
+                        ? Set.of(parts[4].split(",")) : Set.of();
+                return new InvalidationNotice(parts[0], Long.parseLong(parts[1]),
+                        split(parts[2]), split(parts[3]), created.contains(COURSES),
+                        created.contains(USERS), false);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed invalidation notice: " + payload, e);
+        }
+        throw new IllegalArgumentException("Malformed invalidation notice: " + payload);
+    }
+
+    private static String join(Set<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static Set<Long> split(String ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return Arrays.stream(ids.split(","))
+                .map(Long::valueOf)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,123 @@
+package com.skillbook.platform.invalidation;
+
+import com.skillbook.platform.enums.CourseChangeType;
+import com.skillbook.platform.event.CourseChangedEvent;
+import com.skillbook.platform.event.UserChangedEvent;
+import com.skillbook.platform.event.UsersCreatedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Turns course and user change events into one {@code NOTIFY} per transaction. The notice
+ * is sent just before commit on the transaction's own connection, so Postgres delivers it
+ * to listeners if and only if the change commits, and in commit order.
+ */
+public class InvalidationPublisher {
+
+    static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+
+    /** Postgres rejects payloads of 8000 bytes or more; larger change sets flush instead. */
+    static final int MAX_PAYLOAD_BYTES = 7_900;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String channel;
+
+    private final String node = UUID.randomUUID().toString().substring(0, 8);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    public InvalidationPublisher(JdbcTemplate jdbcTemplate, String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.channel = channel;
+    }
+
+    /**
+     * The id this node puts on its notices, so it can ignore its own.
+     *
+     * @return the node id, unique per process start
+     */
+    public String getNode() {
+        return node;
+    }
+
+    @EventListener
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.type() == CourseChangeType.CREATED) {
+            // a flag however many were created, so a bulk creation still fits the payload
+            record(changes -> changes.coursesCreated = true);
+        } else if (event.type() != CourseChangeType.ENROLLMENT) {
+            // enrollments are not part of any cached state
+            record(changes -> changes.courseIds.addAll(event.courseIds()));
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        record(changes -> changes.userIds.add(event.userId()));
+    }
+
+    @EventListener
+    public void onUsersCreated(UsersCreatedEvent event) {
+        record(changes -> changes.usersCreated = true);
+    }
+
+    private void record(Consumer<Changes> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Changes changes = new Changes();
+            change.accept(changes);
+            send(changes);
+            return;
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Changes pending = new Changes();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void beforeCommit(boolean readOnly) {
+                            send(pending);
+                        }
+
+                        @Override
+                        public void afterCompletion(int status) {
+                            TransactionSynchronizationManager
+                                    .unbindResourceIfPossible(InvalidationPublisher.this);
+                        }
+                    });
+            changes = pending;
+        }
+        change.accept(changes);
+    }
+
+    private void send(Changes changes) {
+        long number = sequence.incrementAndGet();
+        String payload = new InvalidationNotice(node, number, changes.courseIds,
+                changes.userIds, changes.coursesCreated, changes.usersCreated, false).encode();
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            payload = InvalidationNotice.everything(node, number).encode();
+        }
+        jdbcTemplate.queryForList(NOTIFY_SQL, channel, payload);
+    }
+
+    private static final class Changes {
+
+        private final Set<Long> courseIds = new LinkedHashSet<>();
+
+        private final Set<Long> userIds = new LinkedHashSet<>();
+
+        private boolean coursesCreated;
+
+        private boolean usersCreated;
+    }
+}
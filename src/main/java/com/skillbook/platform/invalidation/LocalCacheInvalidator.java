@@ -0,0 +1,117 @@
+package com.skillbook.platform.invalidation;
+
+import com.skillbook.platform.model.Course;
+import com.skillbook.platform.model.User;
+import com.skillbook.platform.service.CourseCatalogCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies other nodes' notices to this node's in-process caches: the Hibernate second-level
+ * cache and the serialized course catalog. This node's own changes already reached its
+ * caches through Hibernate and the local change events, so its own notices are skipped.
+ *
+ * <p>Each node numbers its notices 1, 2, 3, ... A number that skips ahead means a notice
+ * was lost (e.g. its transaction failed after the number was taken, or two of the node's
+ * transactions committed out of order), and since there is no way to tell what it held,
+ * every cache is flushed. Flushing too often only costs cache misses; missing a notice
+ * would serve stale data until the entries expire.
+ */
+public class LocalCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalCacheInvalidator.class);
+
+    static final String COURSE_QUERY_REGION = "course-by-category";
+
+    static final String USER_QUERY_REGION = "user-by-username";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CourseCatalogCache catalogCache;
+
+    private final String localNode;
+
+    private final Map<String, Long> lastSequence = new ConcurrentHashMap<>();
+
+    public LocalCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                 CourseCatalogCache catalogCache, String localNode) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.catalogCache = catalogCache;
+        this.localNode = localNode;
+    }
+
+    /**
+     * Applies one received {@code NOTIFY} payload.
+     *
+     * @param payload the payload text
+     */
+    public void apply(String payload) {
+        InvalidationNotice notice;
+        try {
+            notice = InvalidationNotice.parse(payload);
+        } catch (IllegalArgumentException e) {
+            flushAll("unreadable notice " + payload);
+            return;
+        }
+        if (localNode.equals(notice.node())) {
+            return;
+        }
+
+        Long previous = lastSequence.get(notice.node());
+        lastSequence.merge(notice.node(), notice.sequence(), Math::max);
+        // a node seen for the first time started after we began listening, or its earlier
+        // notices predate this node's caches
+        if (notice.everything()
+                || previous != null && notice.sequence() > previous + 1) {
+            flushAll("gap in notices from node " + notice.node());
+            return;
+        }
+        // a notice that arrives late is still applied; the flush that its gap caused may
+        // have happened before its transaction committed
+        evict(notice);
+    }
+
+    /**
+     * Drops everything this node has cached.
+     *
+     * @param reason why, for the log
+     */
+    public void flushAll(String reason) {
+        log.info("Flushing local caches: {}", reason);
+        cache().evictAllRegions();
+        catalogCache.invalidate();
+    }
+
+    private void evict(InvalidationNotice notice) {
+        Cache cache = cache();
+        for (Long courseId : notice.courseIds()) {
+            cache.evictEntityData(Course.class, courseId);
+        }
+        for (Long userId : notice.userIds()) {
+            cache.evictEntityData(User.class, userId);
+        }
+        boolean coursesChanged = !notice.courseIds().isEmpty() || notice.coursesCreated();
+        // query results are only invalidated by local writes, so drop them wholesale
+        if (coursesChanged) {
+            cache.evictQueryRegion(COURSE_QUERY_REGION);
+        }
+        // a new user's username may be cached as not found
+        if (!notice.userIds().isEmpty() || notice.usersCreated()) {
+            cache.evictQueryRegion(USER_QUERY_REGION);
+        }
+        // the catalog embeds instructor names, so user changes stale it too
+        if (coursesChanged || !notice.userIds().isEmpty()) {
+            catalogCache.invalidate();
+        }
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,92 @@
+package com.skillbook.platform.migration;
+
+import com.skillbook.platform.service.PhotoService;
+import com.skillbook.platform.storage.PhotoStore;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Copies the photos of databases created before the {@link PhotoStore} out of the legacy
+ * {@code users.profilepic} column into the store, and points each user at the stored blob.
+ * Fresh databases never had the column, so there it does nothing. V6 then drops the column.
+ *
+ * <p>A Spring bean rather than a class under {@code db/migration}, so it can be handed the
+ * store; Spring Boot registers {@code JavaMigration} beans with Flyway.
+ */
+@Component
+public class V5__Backfill_profile_photos extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V5__Backfill_profile_photos.class);
+
+    static final String LEGACY_COLUMN_SQL = """
+            SELECT COUNT(*) FROM information_schema.columns
+            WHERE table_schema = current_schema
+              AND lower(table_name) = 'users' AND lower(column_name) = 'profilepic'
+            """;
+
+    static final String SELECT_SQL =
+            "SELECT id, profilepic FROM users WHERE profilepic IS NOT NULL AND photo_hash IS NULL";
+
+    static final String UPDATE_SQL = "UPDATE users SET photo_hash = ?, photo_content_type = ?,"
+            + " photo_size = ? WHERE id = ?";
+
+    // rows are read through a cursor, so only this many photos are held at a time
+    private static final int FETCH_SIZE = 16;
+
+    private static final int BATCH_SIZE = 100;
+
+    private final PhotoStore photoStore;
+
+    public V5__Backfill_profile_photos(PhotoStore photoStore) {
+        this.photoStore = photoStore;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (!hasLegacyColumn(connection)) {
+            return;
+        }
+        int copied = 0;
+        try (Statement query = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+            query.setFetchSize(FETCH_SIZE);
+            try (ResultSet rows = query.executeQuery(SELECT_SQL)) {
+                while (rows.next()) {
+                    PhotoStore.StoredBlob blob;
+                    try (InputStream in = rows.getBinaryStream(2)) {
+                        blob = photoStore.store(in);
+                    }
+                    update.setString(1, blob.hash());
+                    update.setString(2,
+                            PhotoService.detectContentType(photoStore.resolve(blob.hash())));
+                    update.setLong(3, blob.size());
+                    update.setLong(4, rows.getLong(1));
+                    update.addBatch();
+                    if (++copied % BATCH_SIZE == 0) {
+                        update.executeBatch();
+                    }
+                }
+            }
+            update.executeBatch();
+        }
+        log.info("Copied {} legacy profile photos into the photo store", copied);
+    }
+
+    private static boolean hasLegacyColumn(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(LEGACY_COLUMN_SQL)) {
+            return result.next() && result.getInt(1) > 0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.skillbook.platform.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Single-row counter for the catalog change version. Writers increment it under a row lock
+ * inside their transaction, so versions become visible in the order they were handed out and
+ * a client that has seen version N can never later miss a change numbered below N.
+ */
+@Entity
+@Table(name = "catalog_version")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CatalogVersion {
+
+    /** Primary key of the one row this table holds. */
+    public static final long CATALOG = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+}
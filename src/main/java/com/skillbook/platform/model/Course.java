@@ -3,6 +3,8 @@ package com.skillbook.platform.model;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.time.LocalDateTime;
@@ -17,12 +19,21 @@ import java.util.Set;
 @Getter
 @Setter
 @ToString
-@Table(name = "course") 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course")
+@Table(name = "course", indexes = {
+        @Index(name = "idx_course_category", columnList = "category"),
+        @Index(name = "idx_course_instructor_id", columnList = "instructor_id"),
+        @Index(name = "idx_course_start_time", columnList = "start_time"),
+        @Index(name = "idx_course_change_version", columnList = "change_version")
+})
 public class Course {
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence: one nextval per 50 rows, and ids are known before flush so inserts batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_seq")
+    @SequenceGenerator(name = "course_seq", sequenceName = "course_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -47,6 +58,17 @@ public class Course {
     @ToString.Exclude
     private Set<User> enrolledUsers = new HashSet<>();
 
+    /** Catalog version of the last create or update; null for rows that predate versioning. */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "change_version")
+    private Long changeVersion;
+
+    /** Optimistic-locking version, sent to clients as the course's ETag. */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,31 @@
+package com.skillbook.platform.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Marker left behind when a course is deleted, so delta syncs can tell clients to drop it.
+ */
+@Entity
+@Table(name = "course_tombstone", indexes = @Index(name = "idx_course_tombstone_version",
+        columnList = "version"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CourseTombstone {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+}
@@ -7,6 +7,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.util.HashSet;
@@ -20,13 +23,20 @@ import java.util.Set;
 @Getter
 @Setter
 @ToString
-@Table(name = "users", schema = "public")  // "user" is a reserved keyword in PostgreSQL
+@DynamicUpdate  // UPDATE statements list only the columns that actually changed
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "user")
+// "user" is a reserved keyword in PostgreSQL
+@Table(name = "users", schema = "public",
+        uniqueConstraints = @UniqueConstraint(name = "uk_users_username", columnNames = "username"))
 @Schema(description = "User model used for login and registration")
 public class User {
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence: one nextval per 50 rows, and ids are known before flush so inserts batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Schema(example = "john_doe")
@@ -53,16 +63,30 @@ public class User {
     @Enumerated(EnumType.STRING)
     private Role role; // e.g. LEARNER, INSTRUCTOR, ADMIN
 
-    @Basic(fetch = FetchType.LAZY)
-    @Column(name = "profilepic", columnDefinition = "bytea")
-    @ToString.Exclude
-    private byte[] profilePhoto;
+    // SHA-256 of the photo in the PhotoStore; the bytes never live in this row
+    @Column(name = "photo_hash", length = 64)
+    private String profilePhotoHash;
+
+    @Column(name = "photo_content_type")
+    private String profilePhotoContentType;
+
+    @Column(name = "photo_size")
+    private Long profilePhotoSize;
+
+    // optimistic-locking version, sent to clients as the profile's ETag; enrollment changes
+    // bump it too, since the owning side of the join table lives here
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     @ManyToMany
     @JoinTable(
             name = "user_course_enrollments",
             joinColumns = @JoinColumn(name = "user_id"),
-            inverseJoinColumns = @JoinColumn(name = "course_id")
+            inverseJoinColumns = @JoinColumn(name = "course_id"),
+            indexes = @Index(name = "idx_enrollments_course_user",
+                    columnList = "course_id, user_id")
     )
     @ToString.Exclude
     private Set<Course> enrolledCourses = new HashSet<>();
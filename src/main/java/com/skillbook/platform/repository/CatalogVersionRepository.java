@@ -0,0 +1,22 @@
+package com.skillbook.platform.repository;
+
+import com.skillbook.platform.model.CatalogVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from CatalogVersion v where v.id = :id")
+    Optional<CatalogVersion> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select v.version from CatalogVersion v where v.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
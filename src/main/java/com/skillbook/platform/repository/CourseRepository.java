@@ -2,14 +2,65 @@ package com.skillbook.platform.repository;
 
 import com.skillbook.platform.model.Course;
 import com.skillbook.platform.model.User;
+import com.skillbook.platform.repository.projection.EnrolledCourseRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
     List<Course> findByInstructor(User instructor);
 
+    // served from the query cache; any write to the course table invalidates it
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "course-by-category")
+    })
     List<Course> findByCategory(String category);
+
+    @Query("select c from Course c left join fetch c.instructor where c.id in :ids")
+    List<Course> findAllWithInstructorByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select c from Course c left join fetch c.instructor "
+            + "where c.changeVersion > :since order by c.changeVersion")
+    List<Course> findChangedSince(@Param("since") long since);
+
+    boolean existsByInstructorId(Long instructorId);
+
+    // bulk update: flushes pending changes first; Hibernate evicts the course cache region
+    @Modifying(flushAutomatically = true)
+    @Query("update Course c set c.changeVersion = :version where c.instructor.id = :instructorId")
+    int stampChangeVersionByInstructorId(@Param("instructorId") Long instructorId,
+                                         @Param("version") long version);
+
+    // one statement instead of loading and trimming each learner's collection, which would
+    // also bump every learner's version; the space limits cache invalidation to this table
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES,
+            value = "user_course_enrollments"))
+    @Query(value = "delete from user_course_enrollments where course_id = :courseId",
+            nativeQuery = true)
+    int deleteEnrollmentsByCourseId(@Param("courseId") Long courseId);
+
+    @Query("select count(u) from User u join u.enrolledCourses c where c.id = :courseId")
+    long countEnrolledUsers(@Param("courseId") Long courseId);
+
+    @Query("select new com.skillbook.platform.repository.projection.EnrolledCourseRow("
+            + "c.id, c.title, c.description, c.category, c.startTime, c.durationMinutes, "
+            + "i.id, i.firstName, i.lastName) "
+            + "from Course c join c.enrolledUsers u left join c.instructor i "
+            + "where u.username = :username and c.id > :after "
+            + "order by c.id")
+    List<EnrolledCourseRow> findEnrolledCourseRows(@Param("username") String username,
+                                                   @Param("after") long after,
+                                                   Pageable page);
 }
@@ -0,0 +1,17 @@
+package com.skillbook.platform.repository;
+
+import com.skillbook.platform.model.CourseTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CourseTombstoneRepository extends JpaRepository<CourseTombstone, Long> {
+
+    @Query("select t.courseId from CourseTombstone t where t.version > :since "
+            + "order by t.version")
+    List<Long> findCourseIdsDeletedSince(@Param("since") long since);
+}
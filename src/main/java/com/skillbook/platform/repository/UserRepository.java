@@ -1,10 +1,52 @@
 package com.skillbook.platform.repository;
 
+import com.skillbook.platform.dto.InstructorDto;
 import com.skillbook.platform.model.User;
+import com.skillbook.platform.repository.projection.ProfilePhotoRow;
+import com.skillbook.platform.repository.projection.UserProfileRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // runs on every authenticated request; any write to the users table invalidates it
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-by-username")
+    })
     Optional<User> findByUsername(String username);
+
+    @EntityGraph(attributePaths = "enrolledCourses")
+    Optional<User> findWithEnrolledCoursesByUsername(String username);
+
+    @EntityGraph(attributePaths = "enrolledCourses")
+    Optional<User> findWithEnrolledCoursesById(Long id);
+
+    @Query("select new com.skillbook.platform.repository.projection.UserProfileRow("
+            + "u.id, u.username, u.email, u.firstName, u.lastName, u.role, "
+            + "u.profilePhotoHash, "
+            + "size(u.enrolledCourses), u.version) "
+            + "from User u where u.username = :username")
+    Optional<UserProfileRow> findProfileByUsername(@Param("username") String username);
+
+    @Query("select new com.skillbook.platform.repository.projection.ProfilePhotoRow("
+            + "u.profilePhotoHash, u.profilePhotoContentType, u.profilePhotoSize) "
+            + "from User u where u.id = :id and u.profilePhotoHash is not null")
+    Optional<ProfilePhotoRow> findProfilePhotoById(@Param("id") Long id);
+
+    @Query("select new com.skillbook.platform.dto.InstructorDto("
+            + "u.id, u.username, u.firstName, u.lastName, u.email) "
+            + "from User u where u.id in :ids")
+    List<InstructorDto> findInstructorsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
 }
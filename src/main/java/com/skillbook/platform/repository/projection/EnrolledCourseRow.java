@@ -0,0 +1,27 @@
+package com.skillbook.platform.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model for one enrolled course joined with its instructor.
+ *
+ * @param id                  the course id
+ * @param title               the course title
+ * @param description         the short description
+ * @param category            the category
+ * @param startTime           the start time
+ * @param durationMinutes     the duration in minutes
+ * @param instructorId        the instructor id, null when the course has no instructor
+ * @param instructorFirstName the instructor first name
+ * @param instructorLastName  the instructor last name
+ */
+public record EnrolledCourseRow(Long id,
+                                String title,
+                                String description,
+                                String category,
+                                LocalDateTime startTime,
+                                int durationMinutes,
+                                Long instructorId,
+                                String instructorFirstName,
+                                String instructorLastName) {
+}
@@ -0,0 +1,11 @@
+package com.skillbook.platform.repository.projection;
+
+/**
+ * Photo metadata kept on the user row; the bytes live in the photo store.
+ *
+ * @param hash        the SHA-256 hash of the photo
+ * @param contentType the declared content type
+ * @param size        the size in bytes
+ */
+public record ProfilePhotoRow(String hash, String contentType, Long size) {
+}
@@ -0,0 +1,28 @@
+package com.skillbook.platform.repository.projection;
+
+import com.skillbook.platform.enums.Role;
+
+/**
+ * Flat read model for the profile header. Selected with a JPQL constructor expression so the
+ * photo column and the enrollment collection are never loaded.
+ *
+ * @param id                  the user id
+ * @param username            the username
+ * @param email               the email address
+ * @param firstName           the first name
+ * @param lastName            the last name
+ * @param role                the role
+ * @param photoHash           hash of the profile photo, null when none is stored
+ * @param enrolledCourseCount number of courses the user is enrolled in
+ * @param version             the optimistic-locking version
+ */
+public record UserProfileRow(Long id,
+                             String username,
+                             String email,
+                             String firstName,
+                             String lastName,
+                             Role role,
+                             String photoHash,
+                             long enrolledCourseCount,
+                             Long version) {
+}
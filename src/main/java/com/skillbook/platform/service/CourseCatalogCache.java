@@ -0,0 +1,126 @@
+package com.skillbook.platform.service;
+
+import com.skillbook.platform.config.JsonWriters;
+import com.skillbook.platform.datasource.ReadWriteRoutingDataSource;
+import com.skillbook.platform.enums.CourseChangeType;
+import com.skillbook.platform.event.CourseChangedEvent;
+import com.skillbook.platform.event.UserChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the {@code GET /courses} response as ready-to-send bytes. The catalog is serialized
+ * and gzip-compressed once per catalog version; requests in between are served from memory
+ * without running Jackson or a compressor. Any course or user change bumps the version and
+ * the next request rebuilds the snapshot.
+ */
+@Component
+public class CourseCatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCatalogCache.class);
+
+    private final CourseService courseService;
+
+    private final JsonWriters jsonWriters;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot current;
+
+    public CourseCatalogCache(CourseService courseService, JsonWriters jsonWriters) {
+        this.courseService = courseService;
+        this.jsonWriters = jsonWriters;
+    }
+
+    /**
+     * Serialized catalog for one version.
+     *
+     * @param version the catalog version the bytes were built from
+     * @param json    the identity-encoded JSON array
+     * @param gzip    the same JSON, gzip-compressed
+     */
+    public record Snapshot(long version, byte[] json, byte[] gzip) {
+    }
+
+    /**
+     * Returns the current catalog bytes, building them if the catalog changed since the
+     * last build. Concurrent callers after a change wait for a single rebuild.
+     *
+     * @return the snapshot for the current catalog version
+     */
+    public Snapshot get() {
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.version() == version.get()) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = current;
+            long target = version.get();
+            if (snapshot != null && snapshot.version() == target) {
+                return snapshot;
+            }
+            // if a change lands while building, the snapshot is already stale and is rebuilt
+            // on the next request instead of being served as current
+            snapshot = build(target);
+            current = snapshot;
+            return snapshot;
+        }
+    }
+
+    /**
+     * Marks the cached bytes stale. Cheap; the rebuild happens on the next read.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        // the catalog does not include enrollments
+        if (event.type() != CourseChangeType.ENROLLMENT) {
+            invalidate();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate();
+    }
+
+    private Snapshot build(long target) {
+        long started = System.nanoTime();
+        try {
+            // served to everyone until the next change, so never built from a lagging replica
+            byte[] json = jsonWriters.courseList().writeValueAsBytes(
+                    ReadWriteRoutingDataSource.onPrimary(courseService::getAllCourses));
+            byte[] gzip = gzip(json);
+            log.info("Built course catalog v{}: {} bytes, {} gzipped, in {} ms", target,
+                    json.length, gzip.length, (System.nanoTime() - started) / 1_000_000);
+            return new Snapshot(target, json, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        // built once per version, so spend the CPU on the best ratio
+        try (GZIPOutputStream zip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            zip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,255 @@
+package com.skillbook.platform.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillbook.platform.enums.ExportFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Streams the full course catalog from a forward-only JDBC cursor straight into a
+ * {@link JsonGenerator}, skipping the entity and DTO layers. Memory stays flat regardless of
+ * catalog size and the first bytes leave as soon as the first fetch returns.
+ *
+ * <p>The JSON written per course has the same shape as {@code CourseDto}; the same cursor
+ * also backs the NDJSON and CSV exports.
+ */
+@Service
+public class CourseCatalogStreamer {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCatalogStreamer.class);
+
+    static final String CATALOG_SQL = """
+            SELECT c.id, c.title, c.description, c.long_description, c.category,
+                   c.start_time, c.duration_minutes, c.instructor_id,
+                   i.username, i.firstname, i.lastname, i.email
+            FROM course c
+            LEFT JOIN public.users i ON i.id = c.instructor_id
+            ORDER BY c.id
+            """;
+
+    static final String[] CSV_HEADER = {
+        "id", "title", "description", "long_description", "category", "start_time",
+        "duration_minutes", "instructor_id", "instructor_username", "instructor_first_name",
+        "instructor_last_name", "instructor_email"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTx;
+
+    private final ObjectMapper objectMapper;
+
+    private final int fetchSize;
+
+    public CourseCatalogStreamer(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${courses.stream.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL only honours the fetch size with autocommit off, i.e. inside a transaction
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Runs the catalog query and hands every row to the callback while the cursor is open.
+     * The result set is forward-only; callbacks must not retain it.
+     *
+     * @param handler the per-row callback
+     */
+    public void streamRows(RowCallbackHandler handler) {
+        readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(CATALOG_SQL, handler));
+    }
+
+    /**
+     * Writes the catalog as a JSON array to the given stream.
+     *
+     * @param out the response stream; left open for the caller
+     * @throws IOException if the client goes away or the stream fails
+     */
+    public void writeJson(OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        int rows;
+        try (JsonGenerator gen = createGenerator(out)) {
+            gen.writeStartArray();
+            rows = streamTo(gen, rs -> writeCourse(gen, rs));
+            gen.writeEndArray();
+        }
+        log.debug("Streamed {} courses in {} ms", rows, elapsedMillis(started));
+    }
+
+    /**
+     * Writes the catalog in the given export format to the given stream.
+     *
+     * @param out    the response stream; left open for the caller
+     * @param format the export format
+     * @throws IOException if the client goes away or the stream fails
+     */
+    public void export(OutputStream out, ExportFormat format) throws IOException {
+        long started = System.nanoTime();
+        int rows = switch (format) {
+            case NDJSON -> writeNdjson(out);
+            case CSV -> writeCsv(out);
+        };
+        log.info("Exported {} courses as {} in {} ms", rows, format, elapsedMillis(started));
+    }
+
+    private int writeNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator gen = createGenerator(out)) {
+            gen.setRootValueSeparator(null);
+            return streamTo(gen, rs -> {
+                writeCourse(gen, rs);
+                gen.writeRaw('\n');
+            });
+        }
+    }
+
+    private int writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write("\r\n");
+        int rows = streamTo(writer, rs -> writeCsvRow(writer, rs));
+        writer.flush();
+        return rows;
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Streams every catalog row through the writer, flushing once per fetched batch so the
+     * client sees data as soon as each round trip completes.
+     *
+     * @param out    the sink to flush
+     * @param writer the per-row writer
+     * @return the number of rows written
+     * @throws IOException if writing fails
+     */
+    private int streamTo(Flushable out, RowWriter writer) throws IOException {
+        int[] rows = {0};
+        try {
+            streamRows(rs -> {
+                try {
+                    writer.write(rs);
+                    if (++rows[0] % fetchSize == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    private static void writeCourse(JsonGenerator gen, ResultSet rs)
+            throws SQLException, IOException {
+        long instructorId = rs.getLong("instructor_id");
+        boolean hasInstructor = !rs.wasNull();
+
+        gen.writeStartObject();
+        gen.writeNumberField("id", rs.getLong("id"));
+        gen.writeStringField("title", rs.getString("title"));
+        gen.writeStringField("description", rs.getString("description"));
+        gen.writeStringField("longDescription", rs.getString("long_description"));
+        gen.writeStringField("category", rs.getString("category"));
+        if (hasInstructor) {
+            gen.writeNumberField("instructorId", instructorId);
+        } else {
+            gen.writeNullField("instructorId");
+        }
+        gen.writeFieldName("startTime");
+        gen.writeObject(rs.getObject("start_time", LocalDateTime.class));
+        gen.writeNumberField("durationMinutes", rs.getInt("duration_minutes"));
+        gen.writeNullField("enrolledUserIds");
+        if (hasInstructor) {
+            gen.writeObjectFieldStart("instructor");
+            gen.writeNumberField("id", instructorId);
+            gen.writeStringField("username", rs.getString("username"));
+            gen.writeStringField("firstName", rs.getString("firstname"));
+            gen.writeStringField("lastName", rs.getString("lastname"));
+            gen.writeStringField("email", rs.getString("email"));
+            gen.writeEndObject();
+        } else {
+            gen.writeNullField("instructor");
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeCsvRow(Writer writer, ResultSet rs)
+            throws SQLException, IOException {
+        LocalDateTime startTime = rs.getObject("start_time", LocalDateTime.class);
+        String[] values = {
+            Long.toString(rs.getLong("id")),
+            rs.getString("title"),
+            rs.getString("description"),
+            rs.getString("long_description"),
+            rs.getString("category"),
+            startTime != null ? startTime.toString() : null,
+            Integer.toString(rs.getInt("duration_minutes")),
+            rs.getString("instructor_id"),
+            rs.getString("username"),
+            rs.getString("firstname"),
+            rs.getString("lastname"),
+            rs.getString("email")
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,207 @@
+package com.skillbook.platform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillbook.platform.dto.CourseChangeDto;
+import com.skillbook.platform.enums.CourseChangeType;
+import com.skillbook.platform.event.CourseChangedEvent;
+import com.skillbook.platform.repository.CourseRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events fan-out for catalog changes. Each subscriber is an async-servlet
+ * {@link SseEmitter}, so an idle connection holds no request thread.
+ * <p>
+ * Committed changes are handed to a single dispatcher thread, which looks up enrollment
+ * counts and serializes each change once, in commit-listener order, off the committing
+ * thread. Every subscriber then gets its own ordered queue, drained by one virtual thread at
+ * a time, so events reach a client in the order they were dispatched and one slow client
+ * cannot hold up the others. A client that falls {@value #MAX_PENDING} events behind is
+ * dropped and reconnects.
+ */
+@Component
+public class CourseChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseChangeFeed.class);
+
+    static final String EVENT_NAME = "course";
+
+    static final int MAX_PENDING = 256;
+
+    private final CourseRepository courseRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final long timeoutMillis;
+
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("sse-dispatch").factory());
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong eventIds = new AtomicLong();
+
+    public CourseChangeFeed(CourseRepository courseRepository, ObjectMapper objectMapper,
+                            @Value("${courses.stream.timeout:30m}") Duration timeout) {
+        this.courseRepository = courseRepository;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Registers a new subscriber. The connection is closed after the configured timeout;
+     * EventSource clients reconnect on their own.
+     *
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.put(emitter, new Subscriber(emitter));
+        return emitter;
+    }
+
+    /**
+     * Number of open subscriber connections.
+     *
+     * @return the current subscriber count
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (!subscribers.isEmpty()) {
+            dispatcher.execute(() -> dispatch(event));
+        }
+    }
+
+    /**
+     * Writes an SSE comment to every subscriber so proxies and load balancers do not close
+     * idle connections, and so connections to clients that went away are detected.
+     */
+    @Scheduled(fixedDelayString = "${courses.stream.heartbeat:15s}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcast(SseEmitter.event().comment("heartbeat").build());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.keySet().forEach(SseEmitter::complete);
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    private void dispatch(CourseChangedEvent event) {
+        List<Long> ids = event.courseIds();
+        try {
+            // a bulk creation is one message listing every id, not one message per course
+            Long courseId = ids.size() == 1 ? ids.get(0) : null;
+            CourseChangeDto change = CourseChangeDto.builder()
+                    .type(event.type())
+                    .courseId(courseId)
+                    .courseIds(courseId == null ? ids : null)
+                    .enrolledCount(event.type() == CourseChangeType.ENROLLMENT
+                            ? courseRepository.countEnrolledUsers(courseId)
+                            : null)
+                    .build();
+            // serialized once and shared; each subscriber only gets the bytes written
+            broadcast(SseEmitter.event()
+                    .id(Long.toString(eventIds.incrementAndGet()))
+                    .name(EVENT_NAME)
+                    .data(objectMapper.writeValueAsString(change))
+                    .build());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Failed to publish change of courses {}", ids, e);
+        }
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.enqueue(event);
+        }
+    }
+
+    /** One client's pending events; at most one drain task runs at a time. */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> pending =
+                new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger pendingCount = new AtomicInteger();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (pendingCount.incrementAndGet() > MAX_PENDING) {
+                drop(new IllegalStateException("Subscriber fell too far behind"));
+                return;
+            }
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // client went away or the emitter already completed
+                        drop(e);
+                        return;
+                    }
+                }
+                draining.set(false);
+                // an event queued after the last poll but before the flag was cleared
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void drop(Exception e) {
+            if (subscribers.remove(emitter) != null) {
+                log.debug("Dropping SSE subscriber: {}", e.getMessage());
+                pending.clear();
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -1,19 +1,44 @@
 package com.skillbook.platform.service;
 
 import com.skillbook.platform.controller.CourseController;
+import com.skillbook.platform.dto.BulkItemErrorDto;
+import com.skillbook.platform.dto.CourseBatchDto;
+import com.skillbook.platform.dto.CourseBulkResultDto;
+import com.skillbook.platform.dto.CourseDeltaDto;
 import com.skillbook.platform.dto.CourseDto;
 import com.skillbook.platform.dto.InstructorDto;
+import com.skillbook.platform.enums.CourseChangeType;
+import com.skillbook.platform.event.CourseChangedEvent;
+import com.skillbook.platform.event.UserChangedEvent;
+import com.skillbook.platform.model.CatalogVersion;
 import com.skillbook.platform.model.Course;
+import com.skillbook.platform.model.CourseTombstone;
 import com.skillbook.platform.model.User;
+import com.skillbook.platform.repository.CatalogVersionRepository;
 import com.skillbook.platform.repository.CourseRepository;
+import com.skillbook.platform.repository.CourseTombstoneRepository;
 import com.skillbook.platform.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,116 +48,184 @@ public class CourseService {
 
     private final UserRepository userRepository;
 
+    private final DtoBatchLoader batchLoader;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CatalogVersionRepository catalogVersionRepository;
+
+    private final CourseTombstoneRepository tombstoneRepository;
+
+    private final Validator validator;
+
+    static final int MAX_BATCH_SIZE = 500;
+
+    static final int MAX_BULK_SIZE = 10_000;
+
     private static final Logger log = LoggerFactory.getLogger(CourseController.class);
 
+    @Transactional(readOnly = true)
     public List<CourseDto> getAllCourses() {
-        List<Course> courses = courseRepository.findAll();
-
-        return courses.stream()
-                .map(course -> CourseDto.builder()
-                        .id(course.getId())
-                        .title(course.getTitle())
-                        .description(course.getDescription())
-                        .longDescription(course.getLongDescription())
-                        .category(course.getCategory())
-                        .durationMinutes(course.getDurationMinutes())
-                        .startTime(course.getStartTime())
-                        .instructorId(course.getInstructor().getId())
-                        .instructor(
-                            course.getInstructor() != null
-                                ? InstructorDto.builder()
-                                    .id(course.getInstructor().getId())
-                                    .username(course.getInstructor().getUsername())
-                                    .firstName(course.getInstructor().getFirstName())
-                                    .lastName(course.getInstructor().getLastName())
-                                    .email(course.getInstructor().getEmail())
-                                    .build()
-                                : null
-                        )
-                        .build())
-                .toList();
+        return toDtos(courseRepository.findAll());
     }
 
+    @Transactional(readOnly = true)
     public CourseDto getCourseById(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "Course not found"));
 
-        return CourseDto.builder()
-                .id(course.getId())
-                .title(course.getTitle())
-                .description(course.getDescription())
-                .longDescription(course.getLongDescription())
-                .category(course.getCategory())
-                .durationMinutes(course.getDurationMinutes())
-                .startTime(course.getStartTime())
-                .instructorId(course.getInstructor().getId())
-                .instructor(
-                    course.getInstructor() != null
-                        ? InstructorDto.builder()
-                            .id(course.getInstructor().getId())
-                            .username(course.getInstructor().getUsername())
-                            .firstName(course.getInstructor().getFirstName())
-                            .lastName(course.getInstructor().getLastName())
-                            .email(course.getInstructor().getEmail())
-                            .build()
-                        : null
-                )
-                .build();
+        return toDtos(List.of(course)).get(0);
     }
 
+    /**
+     * Fetches several courses with their instructors in a single query.
+     * Duplicate ids are collapsed; unknown ids are reported instead of failing the batch.
+     *
+     * @param ids the course ids, in the order the caller wants them back
+     * @return the found courses in request order plus the ids that matched nothing
+     */
+    @Transactional(readOnly = true)
+    public CourseBatchDto getCoursesByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_SIZE + " ids per request");
+        }
+        if (requested.isEmpty()) {
+            return new CourseBatchDto(List.of(), List.of());
+        }
+
+        Map<Long, Course> found = courseRepository.findAllWithInstructorByIdIn(requested)
+                .stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+
+        List<Course> ordered = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Course course = found.get(id);
+            if (course != null) {
+                ordered.add(course);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new CourseBatchDto(toDtos(ordered), missing);
+    }
+
+    @Transactional
     public void createCourse(CourseDto dto) {
         User instructor = userRepository.findById(dto.getInstructorId())
                 .orElseThrow(() -> new RuntimeException("Instructor not found"));
 
-        Course course = Course.builder()
-                .title(dto.getTitle())
-                .description(dto.getDescription())
-                .longDescription(dto.getLongDescription())
-                .category(dto.getCategory())
-                .startTime(dto.getStartTime())
-                .durationMinutes(dto.getDurationMinutes())
-                .instructor(instructor)
-                .build();
+        Course course = newCourse(dto, instructor, nextVersion());
 
         courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(CourseChangeType.CREATED,
+                course.getId()));
+    }
+
+    /**
+     * Creates many courses in one transaction. Every item is validated and all distinct
+     * instructors are resolved in one query before anything is written; if any item is
+     * invalid nothing is created and every problem is reported against its item's index.
+     * The inserts go out in JDBC batches when the transaction flushes, and all courses of
+     * one call share a catalog version.
+     *
+     * @param dtos the courses to create
+     * @return the created ids in request order, or the per-item errors
+     * @throws ResponseStatusException 400 if the list is empty or larger than
+     *                                 {@value #MAX_BULK_SIZE}
+     */
+    @Transactional
+    public CourseBulkResultDto createCourses(List<CourseDto> dtos) {
+        if (dtos.isEmpty() || dtos.size() > MAX_BULK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + MAX_BULK_SIZE + " courses per request");
+        }
+
+        List<BulkItemErrorDto> errors = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            CourseDto dto = dtos.get(i);
+            if (dto == null) {
+                errors.add(new BulkItemErrorDto(i, null, "Course is required"));
+                continue;
+            }
+            for (ConstraintViolation<CourseDto> violation : validator.validate(dto)) {
+                errors.add(new BulkItemErrorDto(i, violation.getPropertyPath().toString(),
+                        violation.getMessage()));
+            }
+        }
+
+        Set<Long> instructorIds = dtos.stream()
+                .filter(Objects::nonNull)
+                .map(CourseDto::getInstructorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> instructors = userRepository.findAllById(instructorIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        for (int i = 0; i < dtos.size(); i++) {
+            CourseDto dto = dtos.get(i);
+            if (dto == null) {
+                continue;
+            }
+            if (dto.getInstructorId() == null) {
+                errors.add(new BulkItemErrorDto(i, "instructorId", "Instructor is required"));
+            } else if (!instructors.containsKey(dto.getInstructorId())) {
+                errors.add(new BulkItemErrorDto(i, "instructorId", "Instructor not found"));
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            errors.sort(Comparator.comparingInt(BulkItemErrorDto::getIndex));
+            return new CourseBulkResultDto(List.of(), errors);
+        }
+
+        long version = nextVersion();
+        List<Course> courses = dtos.stream()
+                .map(dto -> newCourse(dto, instructors.get(dto.getInstructorId()), version))
+                .toList();
+        // sequence ids are assigned here; the rows are written in batches on flush
+        courseRepository.saveAll(courses);
+
+        List<Long> ids = courses.stream().map(Course::getId).toList();
+        // one event for the whole batch: one catalog rebuild, one feed message, one notice
+        eventPublisher.publishEvent(new CourseChangedEvent(CourseChangeType.CREATED, ids));
+        log.info("Created {} courses in bulk at catalog version {}", ids.size(), version);
+        return new CourseBulkResultDto(ids, List.of());
     }
 
+    @Transactional(readOnly = true)
     public List<CourseDto> getCoursesByCategory(String category) {
         List<Course> courses = courseRepository.findByCategory(category);
         if (courses.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                     "No courses found in that category");
         }
-        return courses.stream()
-                .map(course -> CourseDto.builder()
-                        .id(course.getId())
-                        .title(course.getTitle())
-                        .description(course.getDescription())
-                        .longDescription(course.getLongDescription())
-                        .category(course.getCategory())
-                        .durationMinutes(course.getDurationMinutes())
-                        .startTime(course.getStartTime())
-                        .instructorId(course.getInstructor().getId())
-                        .instructor(
-                            course.getInstructor() != null
-                                ? InstructorDto.builder()
-                                    .id(course.getInstructor().getId())
-                                    .username(course.getInstructor().getUsername())
-                                    .firstName(course.getInstructor().getFirstName())
-                                    .lastName(course.getInstructor().getLastName())
-                                    .email(course.getInstructor().getEmail())
-                                    .build()
-                                : null
-                        )
-                        .build())
-                .toList();
+        return toDtos(courses);
     }
 
-    public void updateCourse(Long courseId, CourseDto dto) {
+    /**
+     * Replaces a course's editable fields. When {@code dto.version} is set, the update only
+     * goes ahead if the course is still at that version; a concurrent update that commits
+     * between the read and the write is caught by the version check in the UPDATE itself.
+     *
+     * @param courseId the id of the course to update
+     * @param dto      the new field values, and optionally the version they are based on
+     * @return the updated course, carrying its new version
+     * @throws ResponseStatusException 404 if the course does not exist, 412 if it is no
+     *                                 longer at the expected version
+     */
+    @Transactional
+    public CourseDto updateCourse(Long courseId, CourseDto dto) {
         Course existingCourse = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "Course not found"));
+        if (dto.getVersion() != null && !dto.getVersion().equals(existingCourse.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Course was modified since it was read");
+        }
 
         existingCourse.setTitle(dto.getTitle());
         existingCourse.setDescription(dto.getDescription());
@@ -140,10 +233,158 @@ public class CourseService {
         existingCourse.setCategory(dto.getCategory());
         existingCourse.setDurationMinutes(dto.getDurationMinutes());
         existingCourse.setStartTime(dto.getStartTime());
+        existingCourse.setChangeVersion(nextVersion());
 
         courseRepository.save(existingCourse);
+        // flush now so the returned DTO carries the incremented version
+        courseRepository.flush();
+        eventPublisher.publishEvent(new CourseChangedEvent(CourseChangeType.UPDATED, courseId));
+        return toDtos(List.of(existingCourse)).get(0);
     }
 
+    /**
+     * Deletes a course. Its enrollments are deleted first, in one statement, without loading
+     * the learners or changing their versions.
+     *
+     * @param courseId the id of the course to delete
+     * @throws ResponseStatusException 404 if the course does not exist
+     */
+    @Transactional
+    public void deleteCourse(Long courseId) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Course not found"));
+
+        courseRepository.deleteEnrollmentsByCourseId(courseId);
+        courseRepository.delete(course);
+        tombstoneRepository.save(new CourseTombstone(courseId, nextVersion()));
+        eventPublisher.publishEvent(new CourseChangedEvent(CourseChangeType.DELETED, courseId));
+    }
 
+    /**
+     * Returns what changed in the catalog after the given version, for clients that keep
+     * an offline copy. {@code since = 0} means the client has nothing yet and gets the whole
+     * catalog. Otherwise only rows with a newer change version, and tombstones for deleted
+     * courses, are read through their version indexes.
+     *
+     * <p>The returned high-water mark is read before the rows, so a change that commits
+     * during the call is sent again on the next sync rather than skipped. Applying a course
+     * twice is harmless.
+     *
+     * @param since the version the client last synced to
+     * @return the changed courses, deleted ids and the version to sync from next time
+     * @throws ResponseStatusException 400 if {@code since} is negative
+     */
+    @Transactional(readOnly = true)
+    public CourseDeltaDto getChangesSince(long since) {
+        if (since < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "since must not be negative");
+        }
+        long version = catalogVersionRepository.findVersionById(CatalogVersion.CATALOG)
+                .orElse(0L);
+        if (since == 0) {
+            return new CourseDeltaDto(toDtos(courseRepository.findAll()), List.of(), version);
+        }
+        return new CourseDeltaDto(toDtos(courseRepository.findChangedSince(since)),
+                tombstoneRepository.findCourseIdsDeletedSince(since), version);
+    }
 
+    /**
+     * Delta payloads embed the instructor's name and email, so a profile change re-stamps
+     * the instructor's courses with a new change version and delta-sync clients fetch them
+     * again. Runs in the transaction that changed the user; users without courses cost one
+     * existence check.
+     *
+     * @param event the change
+     */
+    @EventListener
+    @Transactional
+    public void onUserChanged(UserChangedEvent event) {
+        if (courseRepository.existsByInstructorId(event.userId())) {
+            courseRepository.stampChangeVersionByInstructorId(event.userId(), nextVersion());
+        }
+    }
+
+    private static Course newCourse(CourseDto dto, User instructor, long version) {
+        return Course.builder()
+                .title(dto.getTitle())
+                .description(dto.getDescription())
+                .longDescription(dto.getLongDescription())
+                .category(dto.getCategory())
+                .startTime(dto.getStartTime())
+                .durationMinutes(dto.getDurationMinutes())
+                .instructor(instructor)
+                .changeVersion(version)
+                .build();
+    }
+
+    /**
+     * Hands out the next catalog version. The counter row stays locked until the calling
+     * transaction ends, so concurrent writers commit their versions in order.
+     *
+     * @return the new version
+     */
+    private long nextVersion() {
+        CatalogVersion counter = catalogVersionRepository
+                .findByIdForUpdate(CatalogVersion.CATALOG)
+                .orElseGet(() -> new CatalogVersion(CatalogVersion.CATALOG, 0L));
+        counter.setVersion(counter.getVersion() + 1);
+        catalogVersionRepository.save(counter);
+        return counter.getVersion();
+    }
+
+    /**
+     * Maps courses to DTOs. Instructors that are still lazy proxies are resolved together
+     * through the {@link DtoBatchLoader} instead of one query per course.
+     *
+     * @param courses the courses to map
+     * @return the DTOs in the same order
+     */
+    private List<CourseDto> toDtos(List<Course> courses) {
+        Set<Long> unloaded = courses.stream()
+                .map(Course::getInstructor)
+                .filter(instructor -> instructor != null && !Hibernate.isInitialized(instructor))
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        Map<Long, InstructorDto> loaded = unloaded.isEmpty()
+                ? Map.of()
+                : batchLoader.loadInstructors(unloaded);
+
+        return courses.stream()
+                .map(course -> toDto(course, loaded))
+                .toList();
+    }
+
+    private static CourseDto toDto(Course course, Map<Long, InstructorDto> loaded) {
+        User instructor = course.getInstructor();
+        InstructorDto instructorDto = null;
+        if (instructor != null) {
+            instructorDto = Hibernate.isInitialized(instructor)
+                    ? toInstructorDto(instructor)
+                    : loaded.get(instructor.getId());
+        }
+        return CourseDto.builder()
+                .id(course.getId())
+                .title(course.getTitle())
+                .description(course.getDescription())
+                .longDescription(course.getLongDescription())
+                .category(course.getCategory())
+                .durationMinutes(course.getDurationMinutes())
+                .startTime(course.getStartTime())
+                .instructorId(instructor != null ? instructor.getId() : null)
+                .instructor(instructorDto)
+                .version(course.getVersion())
+                .build();
+    }
+
+    static InstructorDto toInstructorDto(User instructor) {
+        return InstructorDto.builder()
+                .id(instructor.getId())
+                .username(instructor.getUsername())
+                .firstName(instructor.getFirstName())
+                .lastName(instructor.getLastName())
+                .email(instructor.getEmail())
+                .build();
+    }
 }
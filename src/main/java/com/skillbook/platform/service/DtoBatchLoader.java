@@ -0,0 +1,135 @@
+package com.skillbook.platform.service;
+
+import com.skillbook.platform.dto.InstructorDto;
+import com.skillbook.platform.event.UserChangedEvent;
+import com.skillbook.platform.model.Course;
+import com.skillbook.platform.repository.CourseRepository;
+import com.skillbook.platform.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * DataLoader-style batching for DTO assembly. Callers hand over every id a response needs;
+ * the loader resolves each entity type with a single {@code IN} query, so the number of
+ * queries per response does not grow with the number of rows being mapped.
+ * <p>
+ * Instructor summaries, including misses, are remembered for the rest of the HTTP request
+ * and dropped when the user changes. Course entities are never remembered: each service
+ * transaction has its own persistence context, and an entity from an earlier one would be
+ * detached in the next. Outside a request nothing is cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class DtoBatchLoader {
+
+    private static final String INSTRUCTORS = DtoBatchLoader.class.getName() + ".instructors";
+
+    private final UserRepository userRepository;
+
+    private final CourseRepository courseRepository;
+
+    /**
+     * Resolves instructor summaries by user id.
+     *
+     * @param ids the user ids; nulls and duplicates are ignored
+     * @return the found instructors keyed by id
+     */
+    public Map<Long, InstructorDto> loadInstructors(Collection<Long> ids) {
+        return load(INSTRUCTORS, ids, missing -> userRepository.findInstructorsByIdIn(missing)
+                .stream()
+                .collect(Collectors.toMap(InstructorDto::getId, Function.identity())));
+    }
+
+    /**
+     * Resolves course entities by id in the current persistence context, with one query.
+     *
+     * @param ids the course ids; nulls and duplicates are ignored
+     * @return the found courses keyed by id
+     */
+    public Map<Long, Course> loadCourses(Collection<Long> ids) {
+        Set<Long> distinct = distinctIds(ids);
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        return courseRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+    }
+
+    /**
+     * Drops a changed user's instructor summary so that a later load in the same request
+     * sees the new name and email.
+     *
+     * @param event the change
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        Map<Long, Optional<InstructorDto>> cache = requestCache(INSTRUCTORS, false);
+        if (cache != null) {
+            cache.remove(event.userId());
+        }
+    }
+
+    private <T> Map<Long, T> load(String cacheName, Collection<Long> ids,
+                                  Function<Set<Long>, Map<Long, T>> fetch) {
+        Map<Long, Optional<T>> cache = requestCache(cacheName, true);
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : distinctIds(ids)) {
+            if (!cache.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, T> found = fetch.apply(missing);
+            // misses are remembered too, so absent ids are not queried again
+            for (Long id : missing) {
+                cache.put(id, Optional.ofNullable(found.get(id)));
+            }
+        }
+
+        Map<Long, T> result = new HashMap<>();
+        for (Long id : ids) {
+            Optional<T> value = id != null ? cache.get(id) : null;
+            if (value != null && value.isPresent()) {
+                result.put(id, value.get());
+            }
+        }
+        return result;
+    }
+
+    private static Set<Long> distinctIds(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                distinct.add(id);
+            }
+        }
+        return distinct;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Map<Long, Optional<T>> requestCache(String name, boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return create ? new HashMap<>() : null;
+        }
+        Map<Long, Optional<T>> cache = (Map<Long, Optional<T>>) attributes.getAttribute(name,
+                RequestAttributes.SCOPE_REQUEST);
+        if (cache == null && create) {
+            cache = new HashMap<>();
+            attributes.setAttribute(name, cache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,119 @@
+package com.skillbook.platform.service;
+
+import com.skillbook.platform.storage.BlobTooLargeException;
+import com.skillbook.platform.storage.PhotoStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Validates profile photo uploads and streams them into the {@link PhotoStore}.
+ * The upload is never copied into a heap array; memory per upload stays at one
+ * copy buffer regardless of the file size.
+ */
+@Service
+public class PhotoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoService.class);
+
+    private static final int SNIFF_LENGTH = 12;
+
+    /** Magic numbers accepted for each declared content type. */
+    private static final Map<String, byte[]> SIGNATURES = Map.of(
+            "image/jpeg", new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF},
+            "image/png", new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'},
+            "image/gif", new byte[] {'G', 'I', 'F', '8'},
+            "image/webp", new byte[] {'R', 'I', 'F', 'F'}
+    );
+
+    private final PhotoStore photoStore;
+
+    private final long maxBytes;
+
+    public PhotoService(PhotoStore photoStore,
+                        @Value("${photos.max-size:5MB}") DataSize maxSize) {
+        this.photoStore = photoStore;
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    /**
+     * Stores an uploaded profile photo.
+     * Rejects the upload before reading it when the declared type or size is not accepted,
+     * and again while streaming if the content does not match the declared type or grows
+     * past the limit.
+     *
+     * @param photo the uploaded file
+     * @return the hash and size of the stored photo
+     * @throws ResponseStatusException 415 for unsupported content, 413 for oversized uploads
+     */
+    public PhotoStore.StoredBlob storeUpload(MultipartFile photo) {
+        String contentType = photo.getContentType();
+        byte[] signature = contentType != null ? SIGNATURES.get(contentType) : null;
+        if (signature == null) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "Photo must be one of " + SIGNATURES.keySet());
+        }
+        if (photo.getSize() > maxBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Photo exceeds " + maxBytes + " bytes");
+        }
+
+        try (InputStream in = new BufferedInputStream(photo.getInputStream(), SNIFF_LENGTH)) {
+            if (!startsWith(in, signature)) {
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                        "Photo content does not match " + contentType);
+            }
+            return photoStore.store(in, maxBytes);
+        } catch (BlobTooLargeException e) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        } catch (IOException e) {
+            log.error("Failed to store uploaded photo", e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Could not store photo");
+        }
+    }
+
+    /**
+     * Detects the content type of a stored photo from its magic bytes. Blobs are shared
+     * between users, so the type is derived from the content rather than any one upload.
+     *
+     * @param file the stored photo
+     * @return the matching image type, or {@code application/octet-stream}
+     * @throws IOException if the file cannot be read
+     */
+    public static String detectContentType(Path file) throws IOException {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(SNIFF_LENGTH);
+        }
+        for (Map.Entry<String, byte[]> entry : SIGNATURES.entrySet()) {
+            byte[] signature = entry.getValue();
+            if (head.length >= signature.length
+                    && Arrays.equals(head, 0, signature.length, signature, 0, signature.length)) {
+                return entry.getKey();
+            }
+        }
+        return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    private static boolean startsWith(InputStream in, byte[] signature) throws IOException {
+        in.mark(SNIFF_LENGTH);
+        byte[] head = in.readNBytes(signature.length);
+        in.reset();
+        return Arrays.equals(head, signature);
+    }
+}
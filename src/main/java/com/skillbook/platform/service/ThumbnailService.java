@@ -0,0 +1,213 @@
+package com.skillbook.platform.service;
+
+import com.skillbook.platform.storage.PhotoStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds pre-sized, re-encoded square variants of profile photos in the background.
+ * The original is decoded once, subsampled while decoding to roughly twice the largest
+ * variant, and each smaller variant is scaled from the previous one.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    /** Refuse to decode images above this many pixels (decompression bomb guard). */
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final PhotoStore photoStore;
+
+    private final List<Integer> sizes;
+
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailService(PhotoStore photoStore,
+                            @Value("${photos.thumbnails.sizes:256,128,64,32}")
+                            List<Integer> sizes) {
+        this.photoStore = photoStore;
+        this.sizes = sizes.stream().sorted(Comparator.reverseOrder()).toList();
+    }
+
+    /**
+     * Returns the configured variant sizes, largest first.
+     *
+     * @return the variant edge lengths in pixels
+     */
+    public List<Integer> getSizes() {
+        return sizes;
+    }
+
+    /**
+     * Whether a variant will exist for a requested display size. Above the largest variant
+     * the original is the final representation.
+     *
+     * @param requested the requested edge length in pixels
+     * @return true if some variant is at least as large
+     */
+    public boolean hasVariantFor(int requested) {
+        return !sizes.isEmpty() && requested <= sizes.get(0);
+    }
+
+    /**
+     * Picks the variant to serve for a requested display size: the smallest variant that is
+     * at least as large and already generated.
+     *
+     * @param hash      the photo hash
+     * @param requested the requested edge length in pixels
+     * @return the variant size, or null to serve the original
+     */
+    public Integer selectVariant(String hash, int requested) {
+        Integer chosen = null;
+        for (int size : sizes) {
+            if (size < requested) {
+                break;
+            }
+            if (Files.isRegularFile(photoStore.resolveVariant(hash, size))) {
+                chosen = size;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Queues generation of all variants of a stored photo.
+     *
+     * @param hash the photo hash
+     */
+    @Async("thumbnailExecutor")
+    public void generateVariantsAsync(String hash) {
+        generateVariants(hash);
+    }
+
+    /**
+     * Generates all missing variants of a stored photo. Variants are shared by every user
+     * with the same photo, so existing ones are left alone, and a photo already being
+     * generated by another thread is skipped.
+     *
+     * @param hash the photo hash
+     */
+    public void generateVariants(String hash) {
+        if (sizes.stream().allMatch(size ->
+                Files.isRegularFile(photoStore.resolveVariant(hash, size)))) {
+            return;
+        }
+        if (!inProgress.add(hash)) {
+            return;
+        }
+        try {
+            BufferedImage image = decode(photoStore.resolve(hash), sizes.get(0) * 2);
+            if (image == null) {
+                return;
+            }
+            image = cropToSquare(image);
+            for (int size : sizes) {
+                if (image.getWidth() > size) {
+                    image = scale(image, size);
+                }
+                write(image, hash, size);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate variants for photo {}", hash, e);
+        } finally {
+            inProgress.remove(hash);
+        }
+    }
+
+    private BufferedImage decode(Path file, int targetEdge) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                log.warn("No image reader for photo {}", file.getFileName());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    log.warn("Photo {} is {}x{}, too large to decode",
+                            file.getFileName(), width, height);
+                    return null;
+                }
+                int step = Math.max(1, Math.min(width, height) / targetEdge);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage cropToSquare(BufferedImage image) {
+        int edge = Math.min(image.getWidth(), image.getHeight());
+        int x = (image.getWidth() - edge) / 2;
+        int y = (image.getHeight() - edge) / 2;
+        return image.getSubimage(x, y, edge, edge);
+    }
+
+    private static BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, size, size, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, String hash, int size) throws IOException {
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            // JPEG has no alpha channel; flatten onto white
+            image = scale(image, image.getWidth());
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temp = photoStore.createTempFile();
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            photoStore.commitVariant(temp, hash, size);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.skillbook.platform.service;
+
+import com.skillbook.platform.dto.UserImportStatusDto;
+import com.skillbook.platform.enums.ImportStatus;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one CSV user import. Written by the import worker and read by status requests,
+ * so every field is either final, volatile or atomic.
+ */
+class UserImportJob {
+
+    private final String id;
+
+    private final Path upload;
+
+    private final Path errorFile;
+
+    private final AtomicLong processedRows = new AtomicLong();
+
+    private final AtomicLong importedRows = new AtomicLong();
+
+    private final AtomicLong failedRows = new AtomicLong();
+
+    private volatile ImportStatus status = ImportStatus.QUEUED;
+
+    private volatile String failure;
+
+    private volatile Instant finishedAt;
+
+    UserImportJob(String id, Path upload, Path errorFile) {
+        this.id = id;
+        this.upload = upload;
+        this.errorFile = errorFile;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Path getUpload() {
+        return upload;
+    }
+
+    Path getErrorFile() {
+        return errorFile;
+    }
+
+    ImportStatus getStatus() {
+        return status;
+    }
+
+    boolean isFinished() {
+        return status == ImportStatus.COMPLETED || status == ImportStatus.FAILED;
+    }
+
+    void start() {
+        status = ImportStatus.RUNNING;
+    }
+
+    // null while the job is queued or running
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = ImportStatus.COMPLETED;
+    }
+
+    void fail(String reason) {
+        failure = reason;
+        finishedAt = Instant.now();
+        status = ImportStatus.FAILED;
+    }
+
+    void rowsProcessed(int rows, int imported, int failed) {
+        processedRows.addAndGet(rows);
+        importedRows.addAndGet(imported);
+        failedRows.addAndGet(failed);
+    }
+
+    UserImportStatusDto toDto() {
+        return UserImportStatusDto.builder()
+                .jobId(id)
+                .status(status)
+                .processedRows(processedRows.get())
+                .importedRows(importedRows.get())
+                .failedRows(failedRows.get())
+                .failure(failure)
+                .build();
+    }
+}
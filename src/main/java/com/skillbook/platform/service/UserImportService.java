@@ -0,0 +1,512 @@
+package com.skillbook.platform.service;
+
+import com.skillbook.platform.dto.UserImportStatusDto;
+import com.skillbook.platform.enums.Role;
+import com.skillbook.platform.event.UsersCreatedEvent;
+import com.skillbook.platform.model.User;
+import com.skillbook.platform.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bulk user onboarding from CSV. The upload is spooled to disk and then read line by line in
+ * chunks, so memory stays flat whatever the file size. Per chunk, existing usernames are
+ * found with one query, passwords are hashed in parallel on a pool sized to the cores, and
+ * the new users are inserted in JDBC batches in their own transaction. Rejected rows are
+ * written to a per-job error file instead of failing the import. A finished job, its upload
+ * and its error file are dropped once the retention period has passed.
+ *
+ * <p>Records must fit on one line; quoted fields may contain commas and doubled quotes but
+ * not line breaks.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    static final String[] HEADER = {
+        "username", "email", "password", "first_name", "last_name", "role"
+    };
+
+    static final String[] ERROR_HEADER = {"line", "username", "error"};
+
+    private final UserRepository userRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TaskExecutor importExecutor;
+
+    private final Executor hashExecutor;
+
+    private final Path workDir;
+
+    private final int chunkSize;
+
+    private final Duration retention;
+
+    private final Map<String, UserImportJob> jobs = new ConcurrentHashMap<>();
+
+    public UserImportService(UserRepository userRepository,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             @Qualifier("userImportExecutor") TaskExecutor importExecutor,
+                             @Qualifier("passwordHashExecutor") Executor hashExecutor,
+                             @Value("${users.import.work-dir}") Path workDir,
+                             @Value("${users.import.chunk-size:500}") int chunkSize,
+                             @Value("${users.import.retention:24h}") Duration retention) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.importExecutor = importExecutor;
+        this.hashExecutor = hashExecutor;
+        this.workDir = workDir;
+        this.chunkSize = chunkSize;
+        this.retention = retention;
+    }
+
+    /**
+     * Spools a CSV upload to disk and queues it for import.
+     *
+     * @param csv the request body; read to the end but not closed
+     * @return the status of the queued job
+     * @throws IOException if the upload cannot be written to the work directory
+     * @throws ResponseStatusException 503 if the import queue is full
+     */
+    public UserImportStatusDto submit(InputStream csv) throws IOException {
+        Files.createDirectories(workDir);
+        String id = UUID.randomUUID().toString();
+        UserImportJob job = new UserImportJob(id, workDir.resolve(id + ".csv"),
+                workDir.resolve(id + "-errors.csv"));
+        Files.copy(csv, job.getUpload());
+
+        jobs.put(id, job);
+        try {
+            importExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(id);
+            Files.deleteIfExists(job.getUpload());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many imports in progress, try again later");
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Returns the progress of an import.
+     *
+     * @param jobId the id returned by {@link #submit(InputStream)}
+     * @return the current counters and status
+     * @throws ResponseStatusException 404 if the job is unknown
+     */
+    public UserImportStatusDto getStatus(String jobId) {
+        return findJob(jobId).toDto();
+    }
+
+    /**
+     * Returns the file listing the rejected rows of a finished import.
+     *
+     * @param jobId the id returned by {@link #submit(InputStream)}
+     * @return path of the error CSV
+     * @throws ResponseStatusException 404 if the job is unknown, 409 if it is still running
+     */
+    public Path getErrorFile(String jobId) {
+        UserImportJob job = findJob(jobId);
+        if (!job.isFinished()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Import is still running");
+        }
+        return job.getErrorFile();
+    }
+
+    /**
+     * Drops the jobs that finished longer ago than {@code users.import.retention}.
+     */
+    @Scheduled(fixedDelayString = "${users.import.cleanup-interval:10m}")
+    public void purgeExpiredJobs() {
+        purgeFinishedBefore(Instant.now().minus(retention));
+    }
+
+    /**
+     * Forgets the jobs that finished before the cutoff and deletes their files. Files no job
+     * owns, left behind by an earlier run of the application, go once they are as old.
+     *
+     * @param cutoff jobs finished and orphaned files last written before this are removed
+     */
+    void purgeFinishedBefore(Instant cutoff) {
+        for (UserImportJob job : jobs.values()) {
+            Instant finishedAt = job.getFinishedAt();
+            if (finishedAt != null && finishedAt.isBefore(cutoff)
+                    && jobs.remove(job.getId(), job)) {
+                deleteQuietly(job.getUpload());
+                deleteQuietly(job.getErrorFile());
+            }
+        }
+
+        if (!Files.isDirectory(workDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(workDir)) {
+            files.filter(file -> !jobs.containsKey(jobId(file)))
+                    .filter(file -> lastModifiedBefore(file, cutoff))
+                    .forEach(UserImportService::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not list import work directory {}", workDir, e);
+        }
+    }
+
+    void run(UserImportJob job) {
+        job.start();
+        long started = System.nanoTime();
+        String failure = null;
+        try (BufferedReader reader = Files.newBufferedReader(job.getUpload(),
+                StandardCharsets.UTF_8);
+             Writer errors = Files.newBufferedWriter(job.getErrorFile(),
+                     StandardCharsets.UTF_8)) {
+            writeRecord(errors, ERROR_HEADER);
+
+            String header = reader.readLine();
+            if (header == null || !isExpectedHeader(header)) {
+                failure = "Expected header: " + String.join(",", HEADER);
+            } else {
+                importRows(job, reader, errors);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("User import {} failed", job.getId(), e);
+            failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        } finally {
+            deleteQuietly(job.getUpload());
+        }
+
+        // only now is the error file closed and complete, so it may be handed out
+        if (failure != null) {
+            job.fail(failure);
+        } else {
+            job.complete();
+            log.info("User import {} finished in {} ms: {}", job.getId(),
+                    (System.nanoTime() - started) / 1_000_000, job.toDto());
+        }
+    }
+
+    private void importRows(UserImportJob job, BufferedReader reader, Writer errors)
+            throws IOException {
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(new Row(lineNumber, line));
+            if (chunk.size() == chunkSize) {
+                importChunk(job, chunk, errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(job, chunk, errors);
+        }
+    }
+
+    private void importChunk(UserImportJob job, List<Row> rows, Writer errors)
+            throws IOException {
+        List<Parsed> parsed = new ArrayList<>(rows.size());
+        Set<String> seen = new HashSet<>();
+        int failed = 0;
+        for (Row row : rows) {
+            User user = null;
+            String error;
+            try {
+                user = toUser(parseCsvLine(row.text()));
+                error = validate(user);
+                if (error == null && !seen.add(user.getUsername())) {
+                    error = "Duplicate username in file";
+                }
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+            if (error != null) {
+                writeError(errors, row.line(), user, error);
+                failed++;
+            } else {
+                parsed.add(new Parsed(row.line(), user));
+            }
+        }
+
+        // one query per chunk; rows committed by earlier chunks are found here too
+        Set<String> existing = parsed.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findExistingUsernames(seen));
+        List<Parsed> accepted = new ArrayList<>(parsed.size());
+        for (Parsed candidate : parsed) {
+            if (existing.contains(candidate.user().getUsername())) {
+                writeError(errors, candidate.line(), candidate.user(), "Username already exists");
+                failed++;
+            } else {
+                accepted.add(candidate);
+            }
+        }
+
+        int imported = 0;
+        if (!accepted.isEmpty()) {
+            List<User> users = accepted.stream().map(Parsed::user).toList();
+            hashPasswords(users);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.saveAll(users);
+                    eventPublisher.publishEvent(new UsersCreatedEvent(
+                            users.stream().map(User::getUsername).toList()));
+                });
+                imported = users.size();
+            } catch (DataIntegrityViolationException e) {
+                // a username taken since the lookup above rolls back the whole batch
+                imported = saveOneByOne(accepted, errors);
+                failed += accepted.size() - imported;
+            }
+        }
+        job.rowsProcessed(rows.size(), imported, failed);
+    }
+
+    /**
+     * Retries a rolled-back chunk one row per transaction, so only the conflicting rows fail.
+     *
+     * @param accepted the rows of the chunk that passed validation, passwords already hashed
+     * @param errors the job's error file
+     * @return the number of rows saved
+     * @throws IOException if a rejected row cannot be written to the error file
+     */
+    private int saveOneByOne(List<Parsed> accepted, Writer errors) throws IOException {
+        int saved = 0;
+        for (Parsed candidate : accepted) {
+            User user = candidate.user();
+            // the failed batch assigned these; left in place, save would merge, not insert
+            user.setId(null);
+            user.setVersion(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.saveAndFlush(user);
+                    eventPublisher.publishEvent(
+                            new UsersCreatedEvent(List.of(user.getUsername())));
+                });
+                saved++;
+            } catch (DataIntegrityViolationException e) {
+                boolean taken = !userRepository
+                        .findExistingUsernames(Set.of(user.getUsername())).isEmpty();
+                writeError(errors, candidate.line(), user, taken
+                        ? "Username already exists" : "Rejected by the database");
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Replaces every raw password with its hash. BCrypt is deliberately slow, so the chunk
+     * is spread over the hash pool and this thread waits for all of them.
+     *
+     * @param users the users of one chunk, still holding their raw passwords
+     */
+    private void hashPasswords(List<User> users) {
+        List<CompletableFuture<Void>> hashed = users.stream()
+                .map(user -> CompletableFuture.runAsync(
+                        () -> user.setPassword(passwordEncoder.encode(user.getPassword())),
+                        hashExecutor))
+                .toList();
+        CompletableFuture.allOf(hashed.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private String validate(User user) {
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private UserImportJob findJob(String jobId) {
+        UserImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import not found");
+        }
+        return job;
+    }
+
+    // <id>.csv and <id>-errors.csv both belong to job <id>
+    private static String jobId(Path file) {
+        String name = file.getFileName().toString();
+        int end = name.endsWith("-errors.csv") ? name.length() - "-errors.csv".length()
+                : name.endsWith(".csv") ? name.length() - ".csv".length() : name.length();
+        return name.substring(0, end);
+    }
+
+    private static boolean lastModifiedBefore(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", file, e);
+        }
+    }
+
+    private static User toUser(String[] fields) {
+        if (fields.length != HEADER.length) {
+            throw new IllegalArgumentException("Expected " + HEADER.length
+                    + " columns, found " + fields.length);
+        }
+        return User.builder()
+                .username(fields[0].trim())
+                .email(fields[1].trim())
+                .password(fields[2])
+                .firstName(blankToNull(fields[3]))
+                .lastName(blankToNull(fields[4]))
+                .role(parseRole(fields[5]))
+                .build();
+    }
+
+    private static Role parseRole(String value) {
+        if (value.isBlank()) {
+            return Role.LEARNER;
+        }
+        try {
+            return Role.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown role: " + value.trim());
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value.isBlank() ? null : value.trim();
+    }
+
+    private static boolean isExpectedHeader(String line) {
+        // tolerate the byte order mark spreadsheet tools put in front of UTF-8 files
+        String header = line.startsWith("\uFEFF") ? line.substring(1) : line;
+        String[] columns = parseCsvLine(header);
+        if (columns.length != HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (!columns[i].trim().equalsIgnoreCase(HEADER[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits one RFC 4180 record into its fields.
+     *
+     * @param line the record, without its line terminator
+     * @return the unquoted field values
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields.toArray(String[]::new);
+    }
+
+    private static void writeError(Writer errors, long line, User user, String message)
+            throws IOException {
+        writeRecord(errors, Long.toString(line), user != null ? user.getUsername() : null,
+                message);
+    }
+
+    private static void writeRecord(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            CourseCatalogStreamer.writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    // one raw line of the upload and its 1-based line number
+    private record Row(long line, String text) {
+    }
+
+    private record Parsed(long line, User user) {
+    }
+}
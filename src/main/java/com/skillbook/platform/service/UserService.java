@@ -1,22 +1,48 @@
 package com.skillbook.platform.service;
 
+import com.skillbook.platform.datasource.ReadWriteRoutingDataSource;
 import com.skillbook.platform.dto.InstructorDto;
 import com.skillbook.platform.dto.UserDto;
 import com.skillbook.platform.dto.CourseDto;
+import com.skillbook.platform.dto.CursorPageDto;
+import com.skillbook.platform.dto.UserProfileDto;
 import com.skillbook.platform.model.Course;
 import com.skillbook.platform.model.User;
 import com.skillbook.platform.repository.CourseRepository;
 import com.skillbook.platform.repository.UserRepository;
+import com.skillbook.platform.repository.projection.EnrolledCourseRow;
+import com.skillbook.platform.repository.projection.ProfilePhotoRow;
+import com.skillbook.platform.repository.projection.UserProfileRow;
+import com.skillbook.platform.storage.PhotoStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.skillbook.platform.enums.CourseChangeType;
+import com.skillbook.platform.event.CourseChangedEvent;
+import com.skillbook.platform.event.UserChangedEvent;
+import com.skillbook.platform.event.UsersCreatedEvent;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -26,6 +52,12 @@ public class UserService {
 
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    static final int MAX_ENROLL_ATTEMPTS = 3;
+
     private final UserRepository userRepository;
 
     private final CourseRepository courseRepository;
@@ -33,6 +65,14 @@ public class UserService {
     @Autowired
     private final PasswordEncoder passwordEncoder;
 
+    private final DtoBatchLoader batchLoader;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
 
     public UserDto findById(Long id) {
         User user = userRepository.findById(id)
@@ -49,8 +89,17 @@ public class UserService {
                 .build();
     }
 
+    /**
+     * Loads a user with their enrolled courses. The courses are fetched with the user and
+     * their instructors in one batch, so nothing is loaded lazily after the transaction.
+     *
+     * @param username the username
+     * @return the user and their enrolled courses
+     * @throws ResponseStatusException 404 if the user does not exist
+     */
+    @Transactional(readOnly = true)
     public UserDto findByUsername(String username) {
-        User user =  userRepository.findByUsername(username)
+        User user = userRepository.findWithEnrolledCoursesByUsername(username)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
                         "User not found"));
 
@@ -61,30 +110,100 @@ public class UserService {
                 .firstName(user.getFirstName())
                 .lastName(user.getLastName())
                 .role(user.getRole())
-                .profilePhoto(user.getProfilePhoto())
-                .enrolledCourses(
-                        user.getEnrolledCourses().stream()
-                                .map(course -> CourseDto.builder()
-                                        .id(course.getId())
-                                        .title(course.getTitle())
-                                        .description(course.getDescription())
-                                        .instructor(
-                                                course.getInstructor() != null
-                                                        ? InstructorDto.builder()
-                                                        .id(course.getInstructor().getId())
-                                                        .firstName(course.getInstructor()
-                                                                .getFirstName())
-                                                        .lastName(course.getInstructor()
-                                                                .getLastName())
-                                                        .build()
-                                                        : null
-                                        )
-                                        .build())
-                                .collect(Collectors.toList())
-                )
+                .profilePhotoUrl(user.getProfilePhotoHash() != null
+                        ? photoUrl(user.getProfilePhotoHash()) : null)
+                .enrolledCourses(toCourseDtos(user.getEnrolledCourses()))
+                .version(user.getVersion())
                 .build();
     }
 
+    /**
+     * Loads the profile header for a user: profile fields, a photo URL and the enrollment
+     * count. Runs a single projection query and never touches the photo bytes or the
+     * enrolled courses themselves.
+     *
+     * @param username the username
+     * @return the user's profile
+     */
+    public UserProfileDto getProfile(String username) {
+        UserProfileRow row = userRepository.findProfileByUsername(username)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "User not found"));
+
+        return UserProfileDto.builder()
+                .id(row.id())
+                .username(row.username())
+                .email(row.email())
+                .firstName(row.firstName())
+                .lastName(row.lastName())
+                .role(row.role())
+                .profilePhotoUrl(row.photoHash() != null ? photoUrl(row.photoHash()) : null)
+                .enrolledCourseCount(row.enrolledCourseCount())
+                .version(row.version())
+                .build();
+    }
+
+    /**
+     * Returns one page of the courses a user is enrolled in, ordered by course id.
+     * Uses keyset pagination: pass the previous page's {@code nextCursor} as {@code after}.
+     *
+     * @param username the username
+     * @param after    only courses with a greater id are returned; null for the first page
+     * @param limit    requested page size, clamped to 1..{@value #MAX_PAGE_SIZE}; null for
+     *                 {@value #DEFAULT_PAGE_SIZE}
+     * @return the page of courses with the cursor for the next one
+     */
+    public CursorPageDto<CourseDto> getEnrolledCourses(String username, Long after,
+                                                      Integer limit) {
+        int size = limit == null
+                ? DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // fetch one extra row to learn whether another page exists
+        List<EnrolledCourseRow> rows = courseRepository.findEnrolledCourseRows(username,
+                after != null ? after : 0L, PageRequest.ofSize(size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<CourseDto> items = rows.stream()
+                .limit(size)
+                .map(row -> CourseDto.builder()
+                        .id(row.id())
+                        .title(row.title())
+                        .description(row.description())
+                        .category(row.category())
+                        .startTime(row.startTime())
+                        .durationMinutes(row.durationMinutes())
+                        .instructorId(row.instructorId())
+                        .instructor(
+                                row.instructorId() != null
+                                        ? InstructorDto.builder()
+                                        .id(row.instructorId())
+                                        .firstName(row.instructorFirstName())
+                                        .lastName(row.instructorLastName())
+                                        .build()
+                                        : null
+                        )
+                        .build())
+                .toList();
+
+        return CursorPageDto.<CourseDto>builder()
+                .items(items)
+                .nextCursor(hasMore ? items.get(items.size() - 1).getId() : null)
+                .build();
+    }
+
+    /**
+     * Returns the stored photo metadata of a user.
+     *
+     * @param userId the user id
+     * @return the photo hash, content type and size
+     */
+    public ProfilePhotoRow getProfilePhoto(Long userId) {
+        return userRepository.findProfilePhotoById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Photo not found"));
+    }
+
     public void createUser(UserDto dto) {
         User user = User.builder()
                 .username(dto.getUsername())
@@ -95,12 +214,131 @@ public class UserService {
                 .role(dto.getRole())
                 .build();
         userRepository.save(user);
+        eventPublisher.publishEvent(new UsersCreatedEvent(List.of(user.getUsername())));
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to a user's profile in one transaction.
+     * Only members present in the patch are touched; {@code null} clears optional fields.
+     * Combined with dynamic updates on {@link User}, the resulting UPDATE lists only the
+     * changed columns and never re-sends the photo metadata or the enrollment set. Values
+     * must be JSON strings or null, and the email must satisfy the constraints on
+     * {@link User}. A patch that changes nothing publishes no {@link UserChangedEvent}.
+     *
+     * @param username        the username of the user to patch
+     * @param patch           the merge patch document
+     * @param expectedVersion the version the patch is based on, or null to skip the check
+     * @return the patched profile
+     * @throws ResponseStatusException 400 if the patch touches read-only or unknown fields,
+     *                                 has a non-string value, clears a required field or
+     *                                 sets an invalid email, 412 if the user is no longer
+     *                                 at the expected version
+     */
+    @Transactional
+    public UserProfileDto patchUser(String username, JsonNode patch, Long expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Merge patch must be a JSON object");
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "User not found"));
+        checkVersion(user, expectedVersion);
+        List<String> before = profileFields(user);
+
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String text = textValue(field.getKey(), field.getValue());
+            switch (field.getKey()) {
+                case "firstName" -> user.setFirstName(text);
+                case "lastName" -> user.setLastName(text);
+                case "email" -> user.setEmail(validEmail(requireText("email", text)));
+                case "password" -> user.setPassword(
+                        passwordEncoder.encode(requireText("password", text)));
+                default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Field cannot be patched: " + field.getKey());
+            }
+        }
+
+        if (!before.equals(profileFields(user))) {
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+        }
+        // the profile query flushes the pending UPDATE first
+        return getProfile(username);
+    }
+
+    /**
+     * Rejects a profile form filled from an outdated version before the caller does costly
+     * work such as storing an upload. {@link #updateProfile} checks again on the row it
+     * updates. Read on the primary, where a replica could report an older version.
+     *
+     * @param username        the username of the user about to be updated
+     * @param expectedVersion the version the form is based on, or null to skip the check
+     * @throws ResponseStatusException 404 if the user does not exist, 412 if the user is no
+     *                                 longer at the expected version
+     */
+    @Transactional(readOnly = true)
+    public void checkProfileVersion(String username, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return;
+        }
+        UserProfileRow row = ReadWriteRoutingDataSource.onPrimary(
+                () -> userRepository.findProfileByUsername(username))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "User not found"));
+        if (!expectedVersion.equals(row.version())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "User was modified since it was read");
+        }
+    }
+
+    /**
+     * Applies the dashboard profile form: names, email and optionally a new photo that the
+     * caller has already stored. Publishes a {@link UserChangedEvent} if anything changed, so
+     * the catalog and other nodes' caches pick up the new instructor details.
+     *
+     * @param username         the username of the user to update
+     * @param dto              the form fields; first name, last name and email are read, and
+     *                         the version the form is based on, if set, is checked
+     * @param photo            the stored photo, or null to keep the current one
+     * @param photoContentType the photo's content type, ignored without a photo
+     * @return the updated profile, with its new version
+     * @throws ResponseStatusException 400 if the email is missing or invalid, 404 if the
+     *                                 user does not exist, 412 if the user is no longer at
+     *                                 the expected version
+     */
+    @Transactional
+    public UserProfileDto updateProfile(String username, UserDto dto, PhotoStore.StoredBlob photo,
+                                        String photoContentType) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "User not found"));
+        checkVersion(user, dto.getVersion());
+        List<String> before = profileFields(user);
+
+        user.setFirstName(dto.getFirstName());
+        user.setLastName(dto.getLastName());
+        user.setEmail(validEmail(requireText("email", dto.getEmail())));
+        if (photo != null) {
+            user.setProfilePhotoHash(photo.hash());
+            user.setProfilePhotoContentType(photoContentType);
+            user.setProfilePhotoSize(photo.size());
+        }
+
+        if (!before.equals(profileFields(user))) {
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+        }
+        // the profile query flushes the pending UPDATE first
+        return getProfile(username);
     }
 
+    @Transactional
     public void updateUser(UserDto dto) {
-        User existing = userRepository.findById(dto.getId())
+        User existing = userRepository.findWithEnrolledCoursesById(dto.getId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
                         "User not found"));
+        checkVersion(existing, dto.getVersion());
 
         existing.setEmail(dto.getEmail());
         existing.setFirstName(dto.getFirstName());
@@ -109,15 +347,168 @@ public class UserService {
         }
         existing.setLastName(dto.getLastName());
         existing.setRole(dto.getRole());
-        existing.setProfilePhoto(dto.getProfilePhoto());
-        Set<Course> enrolledCourses = dto.getEnrolledCourses().stream()
-                .map(courseDto -> courseRepository.findById(courseDto.getId())
-                        .orElseThrow(() -> new EntityNotFoundException(
-                                "Course not found with id: " + courseDto.getId())))
-                .collect(Collectors.toSet());
+        List<Long> courseIds = dto.getEnrolledCourses().stream()
+                .map(CourseDto::getId)
+                .toList();
+        Map<Long, Course> courses = batchLoader.loadCourses(courseIds);
+        Set<Course> enrolledCourses = new HashSet<>();
+        for (Long courseId : courseIds) {
+            Course course = courses.get(courseId);
+            if (course == null) {
+                throw new EntityNotFoundException("Course not found with id: " + courseId);
+            }
+            enrolledCourses.add(course);
+        }
 
+        Set<Course> previous = existing.getEnrolledCourses() != null
+                ? existing.getEnrolledCourses() : Set.of();
+        Set<Long> enrollmentChanges = new HashSet<>();
+        for (Course course : previous) {
+            if (!enrolledCourses.contains(course)) {
+                enrollmentChanges.add(course.getId());
+            }
+        }
+        for (Course course : enrolledCourses) {
+            if (!previous.contains(course)) {
+                enrollmentChanges.add(course.getId());
+            }
+        }
         existing.setEnrolledCourses(enrolledCourses);
 
         userRepository.save(existing);
+        eventPublisher.publishEvent(new UserChangedEvent(existing.getId()));
+        for (Long courseId : enrollmentChanges) {
+            eventPublisher.publishEvent(
+                    new CourseChangedEvent(CourseChangeType.ENROLLMENT, courseId));
+        }
+    }
+
+    /**
+     * Enrolls a user in a course. Enrolling bumps the user's version, so two concurrent
+     * enrollments of the same user, or an enrollment racing a profile edit, conflict at
+     * commit. The loser is simply run again on fresh state, up to
+     * {@value #MAX_ENROLL_ATTEMPTS} times, as adding an enrollment never depends on what the
+     * other transaction wrote. Enrolling twice in the same course is a no-op.
+     *
+     * @param username the username of the learner
+     * @param courseId the id of the course
+     * @throws ResponseStatusException 404 if the user or the course does not exist
+     */
+    public void enroll(String username, Long courseId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.execute(status -> addEnrollment(username, courseId));
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_ENROLL_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Enrollment of {} in course {} conflicted, retrying", username,
+                        courseId);
+            }
+        }
+    }
+
+    private Void addEnrollment(String username, Long courseId) {
+        User user = userRepository.findWithEnrolledCoursesByUsername(username)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "User not found"));
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Course not found"));
+
+        if (user.getEnrolledCourses().add(course)) {
+            eventPublisher.publishEvent(
+                    new CourseChangedEvent(CourseChangeType.ENROLLMENT, courseId));
+        }
+        return null;
+    }
+
+    private static void checkVersion(User user, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "User was modified since it was read");
+        }
+    }
+
+    /**
+     * Builds the immutable, content-addressed URL of a photo. A new upload has a new hash
+     * and therefore a new URL, so clients can cache photos forever.
+     *
+     * @param hash the SHA-256 hash of the photo
+     * @return the photo URL
+     */
+    public static String photoUrl(String hash) {
+        return "/photos/" + hash;
+    }
+
+    /**
+     * Maps enrolled courses to summary DTOs, resolving any lazy instructors with one query.
+     *
+     * @param courses the enrolled courses
+     * @return the course summaries
+     */
+    private List<CourseDto> toCourseDtos(Collection<Course> courses) {
+        Set<Long> unloaded = courses.stream()
+                .map(Course::getInstructor)
+                .filter(instructor -> instructor != null && !Hibernate.isInitialized(instructor))
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        Map<Long, InstructorDto> loaded = unloaded.isEmpty()
+                ? Map.of()
+                : batchLoader.loadInstructors(unloaded);
+
+        return courses.stream()
+                .map(course -> {
+                    User instructor = course.getInstructor();
+                    InstructorDto instructorDto = null;
+                    if (instructor != null) {
+                        instructorDto = Hibernate.isInitialized(instructor)
+                                ? CourseService.toInstructorDto(instructor)
+                                : loaded.get(instructor.getId());
+                    }
+                    return CourseDto.builder()
+                            .id(course.getId())
+                            .title(course.getTitle())
+                            .description(course.getDescription())
+                            .instructor(instructorDto)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> profileFields(User user) {
+        // Arrays.asList, as List.of rejects the nulls of cleared fields
+        return Arrays.asList(user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getPassword(), user.getProfilePhotoHash());
+    }
+
+    private static String textValue(String field, JsonNode value) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Field must be a string: " + field);
+        }
+        return value.textValue();
+    }
+
+    private String validEmail(String email) {
+        Set<ConstraintViolation<User>> violations =
+                validator.validateValue(User.class, "email", email);
+        if (!violations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    violations.iterator().next().getMessage());
+        }
+        return email;
+    }
+
+    private static String requireText(String field, String value) {
+        if (value == null || value.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Field cannot be empty: " + field);
+        }
+        return value;
     }
 }
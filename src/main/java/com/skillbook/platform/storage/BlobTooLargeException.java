@@ -0,0 +1,18 @@
+package com.skillbook.platform.storage;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a blob being stored exceeds the allowed size. Nothing is kept in the store.
+ */
+public class BlobTooLargeException extends IOException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param maxBytes the limit that was exceeded
+     */
+    public BlobTooLargeException(long maxBytes) {
+        super("Blob exceeds the limit of " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,191 @@
+package com.skillbook.platform.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed blob store for profile photos on the local filesystem.
+ * Each blob is stored once under its SHA-256 hash, so identical uploads share a file.
+ * Files are laid out as {@code <root>/ab/cd/abcd...} to keep directories small.
+ */
+@Component
+public class PhotoStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoStore.class);
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path root;
+
+    private final Path tmp;
+
+    /**
+     * Creates the store and its directories.
+     *
+     * @param storageDir the root directory for stored blobs
+     * @throws IOException if the directories cannot be created
+     */
+    public PhotoStore(@Value("${photos.storage-dir}") String storageDir) throws IOException {
+        this.root = Path.of(storageDir).toAbsolutePath();
+        this.tmp = root.resolve("tmp");
+        Files.createDirectories(tmp);
+    }
+
+    /**
+     * Streams the input into the store, hashing it on the way.
+     * If a blob with the same hash already exists the new copy is discarded.
+     *
+     * @param in the content to store; not closed by this method
+     * @return the hash and size of the stored blob
+     * @throws IOException if the content cannot be written
+     */
+    public StoredBlob store(InputStream in) throws IOException {
+        return store(in, Long.MAX_VALUE);
+    }
+
+    /**
+     * Streams the input into the store through a fixed-size buffer, hashing it on the way.
+     * Aborts as soon as more than {@code maxBytes} have been read, so an oversized upload
+     * costs at most one buffer beyond the limit.
+     *
+     * @param in       the content to store; not closed by this method
+     * @param maxBytes the maximum accepted size
+     * @return the hash and size of the stored blob
+     * @throws BlobTooLargeException if the content exceeds {@code maxBytes}
+     * @throws IOException           if the content cannot be written
+     */
+    public StoredBlob store(InputStream in, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path tempFile = Files.createTempFile(tmp, "upload-", ".part");
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new BlobTooLargeException(maxBytes);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            commit(tempFile, hash);
+            return new StoredBlob(hash, size);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Resolves the file holding a blob.
+     *
+     * @param hash the SHA-256 hash in lower-case hex
+     * @return the path of the blob file
+     * @throws IllegalArgumentException if the hash is malformed
+     */
+    public Path resolve(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /**
+     * Resolves the file holding a pre-sized variant of a blob.
+     *
+     * @param hash the SHA-256 hash of the original blob
+     * @param size the edge length of the square variant in pixels
+     * @return the path of the variant file, which may not exist yet
+     */
+    public Path resolveVariant(String hash, int size) {
+        Path original = resolve(hash);
+        return original.resolveSibling(hash + "_" + size + ".jpg");
+    }
+
+    /**
+     * Creates an empty temporary file inside the store, on the same filesystem as the blobs
+     * so it can later be committed with an atomic move.
+     *
+     * @return the temporary file
+     * @throws IOException if the file cannot be created
+     */
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(tmp, "variant-", ".part");
+    }
+
+    /**
+     * Moves a fully written temporary file into place as a variant of a blob.
+     *
+     * @param tempFile the file returned by {@link #createTempFile()}
+     * @param hash     the SHA-256 hash of the original blob
+     * @param size     the edge length of the square variant in pixels
+     * @throws IOException if the file cannot be moved
+     */
+    public void commitVariant(Path tempFile, String hash, int size) throws IOException {
+        Path target = resolveVariant(hash, size);
+        Files.createDirectories(target.getParent());
+        Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Checks whether a blob is present.
+     *
+     * @param hash the SHA-256 hash in lower-case hex
+     * @return true if the blob file exists
+     */
+    public boolean exists(String hash) {
+        return Files.isRegularFile(resolve(hash));
+    }
+
+    private void commit(Path tempFile, String hash) throws IOException {
+        Path target = resolve(hash);
+        if (Files.exists(target)) {
+            log.debug("Blob {} already stored, skipping duplicate", hash);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // a concurrent upload of the same content won the race
+            log.debug("Blob {} stored concurrently", hash);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Result of storing a blob.
+     *
+     * @param hash the SHA-256 hash in lower-case hex
+     * @param size the size in bytes
+     */
+    public record StoredBlob(String hash, long size) {
+    }
+}
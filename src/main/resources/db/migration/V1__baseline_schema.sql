@@ -0,0 +1,56 @@
+-- Schema as previously generated by Hibernate's ddl-auto: update. Every statement is
+-- idempotent so databases created that way adopt this migration without changes
+-- (see spring.flyway.baseline-version in application.yml).
+
+CREATE TABLE IF NOT EXISTS users (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username           VARCHAR(255),
+    email              VARCHAR(255),
+    password           VARCHAR(255),
+    firstname          VARCHAR(255),
+    lastname           VARCHAR(255),
+    role               VARCHAR(255),
+    photo_hash         VARCHAR(64),
+    photo_content_type VARCHAR(255),
+    photo_size         BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS course (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            VARCHAR(255),
+    description      VARCHAR(255),
+    long_description TEXT,
+    category         VARCHAR(255),
+    instructor_id    BIGINT REFERENCES users (id),
+    start_time       TIMESTAMP(6),
+    duration_minutes INTEGER NOT NULL,
+    change_version   BIGINT
+);
+
+-- Hibernate already gave Set-valued join tables a (user_id, course_id) primary key
+CREATE TABLE IF NOT EXISTS user_course_enrollments (
+    user_id   BIGINT NOT NULL REFERENCES users (id),
+    course_id BIGINT NOT NULL REFERENCES course (id),
+    PRIMARY KEY (user_id, course_id)
+);
+
+CREATE TABLE IF NOT EXISTS catalog_version (
+    id      BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS course_tombstone (
+    course_id BIGINT PRIMARY KEY,
+    version   BIGINT NOT NULL
+);
+
+-- columns added after the tables were first generated
+ALTER TABLE users ADD COLUMN IF NOT EXISTS photo_hash VARCHAR(64);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS photo_content_type VARCHAR(255);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS photo_size BIGINT;
+ALTER TABLE course ADD COLUMN IF NOT EXISTS long_description TEXT;
+ALTER TABLE course ADD COLUMN IF NOT EXISTS change_version BIGINT;
+
+INSERT INTO catalog_version (id, version)
+SELECT 1, 0
+WHERE NOT EXISTS (SELECT 1 FROM catalog_version WHERE id = 1);
@@ -0,0 +1,26 @@
+-- One index per repository finder. Names match the @Table/@JoinTable declarations on the
+-- entities so the H2 test schema carries the same plan.
+
+-- findByUsername, findProfileByUsername and the JWT filter on every request.
+-- Fails if duplicate usernames already exist; resolve those before migrating.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_username ON users (username);
+
+-- findByCategory
+CREATE INDEX IF NOT EXISTS idx_course_category ON course (category);
+
+-- findByInstructor and the instructor join of every course listing
+CREATE INDEX IF NOT EXISTS idx_course_instructor_id ON course (instructor_id);
+
+-- upcoming-course ordering and date-range filters
+CREATE INDEX IF NOT EXISTS idx_course_start_time ON course (start_time);
+
+-- findChangedSince
+CREATE INDEX IF NOT EXISTS idx_course_change_version ON course (change_version);
+
+-- findCourseIdsDeletedSince
+CREATE INDEX IF NOT EXISTS idx_course_tombstone_version ON course_tombstone (version);
+
+-- The primary key serves user -> courses; this serves course -> users
+-- (countEnrolledUsers, enrollment cleanup on course delete).
+CREATE INDEX IF NOT EXISTS idx_enrollments_course_user
+    ON user_course_enrollments (course_id, user_id);
@@ -0,0 +1,14 @@
+-- Ids come from sequences with Hibernate's pooled optimizer instead of identity columns,
+-- which disabled JDBC insert batching. INCREMENT BY must equal the allocationSize on the
+-- entities, or Hibernate refuses to start.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS course_seq INCREMENT BY 50;
+
+-- The pooled optimizer treats each nextval as the top of a block of 50, so the first value
+-- handed out must be at least MAX(id) + 50 to keep new ids above existing rows.
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
+SELECT setval('course_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM course), false);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE course ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,5 @@
+-- Optimistic-locking counters for @Version on Course and User. Every UPDATE checks and bumps
+-- the row's version, so a write based on a stale read fails instead of overwriting.
+
+ALTER TABLE course ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- the photos of users created before the photo store were copied into it by
+-- com.skillbook.platform.migration.V5__Backfill_profile_photos
+ALTER TABLE users DROP COLUMN IF EXISTS profilepic;
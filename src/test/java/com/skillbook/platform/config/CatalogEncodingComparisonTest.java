@@ -0,0 +1,95 @@
+package com.skillbook.platform.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.skillbook.platform.dto.CourseDto;
+import com.skillbook.platform.dto.InstructorDto;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares payload size and parse time of the course catalog in JSON, CBOR and Smile, using
+ * the mappers the web layer is configured with. Sizes are asserted; timings are logged only,
+ * since wall-clock numbers from a unit test are indicative at best.
+ */
+class CatalogEncodingComparisonTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogEncodingComparisonTest.class);
+
+    private static final int CATALOG_SIZE = 1_000;
+
+    private static final int PARSE_ROUNDS = 20;
+
+    private final ObjectMapper json = new JacksonConfig().objectMapper();
+
+    @Test
+    void binaryFormatsShouldRoundTripAndBeSmallerThanJson() throws Exception {
+        List<CourseDto> catalog = realisticCatalog();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", json);
+        mappers.put("cbor", json.copyWith(new CBORFactory()));
+        mappers.put("smile", json.copyWith(new SmileFactory()));
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] bytes = mapper.writeValueAsBytes(catalog);
+            assertEquals(catalog, Arrays.asList(mapper.readValue(bytes, CourseDto[].class)));
+
+            for (int i = 0; i < PARSE_ROUNDS; i++) {
+                mapper.readValue(bytes, CourseDto[].class);
+            }
+            long started = System.nanoTime();
+            for (int i = 0; i < PARSE_ROUNDS; i++) {
+                mapper.readValue(bytes, CourseDto[].class);
+            }
+            double millisPerParse = (System.nanoTime() - started) / 1e6 / PARSE_ROUNDS;
+
+            sizes.put(entry.getKey(), bytes.length);
+            log.info("{} courses as {}: {} bytes, {} ms per parse", CATALOG_SIZE, entry.getKey(),
+                    bytes.length, String.format("%.2f", millisPerParse));
+        }
+
+        assertTrue(sizes.get("cbor") < sizes.get("json"));
+        assertTrue(sizes.get("smile") < sizes.get("json"));
+    }
+
+    static List<CourseDto> realisticCatalog() {
+        String[] categories = {"Programming", "Design", "Fitness", "Languages", "Music"};
+        List<CourseDto> catalog = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 1; i <= CATALOG_SIZE; i++) {
+            long instructorId = 1 + i % 40;
+            catalog.add(CourseDto.builder()
+                    .id((long) i)
+                    .title("Course " + i + ": a practical introduction")
+                    .description("Hands-on sessions with weekly exercises, number " + i)
+                    .longDescription(("This course is designed for anyone who wants to build "
+                            + "real skills through guided practice. Session " + i + " covers "
+                            + "fundamentals, common pitfalls and a final project. ").repeat(3))
+                    .category(categories[i % categories.length])
+                    .instructorId(instructorId)
+                    .startTime(LocalDateTime.of(2025, 1, 1, 9, 0).plusHours(i * 7L))
+                    .durationMinutes(30 + (i % 6) * 15)
+                    .instructor(InstructorDto.builder()
+                            .id(instructorId)
+                            .username("instructor" + instructorId)
+                            .firstName("First" + instructorId)
+                            .lastName("Last" + instructorId)
+                            .email("instructor" + instructorId + "@skillbook.example")
+                            .build())
+                    .build());
+        }
+        return catalog;
+    }
+}
@@ -0,0 +1,94 @@
+package com.skillbook.platform.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.skillbook.platform.dto.CourseDto;
+import com.skillbook.platform.dto.UserDto;
+import com.skillbook.platform.enums.Role;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the tuned serialization path (Blackbird accessors plus the prepared
+ * writers from {@link JsonWriters}) against a plain reflective mapper.
+ *
+ * <p>Skipped in normal builds. Run with
+ * {@code mvn test -Dtest=JsonWritersBenchmark -Dbenchmark=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonWritersBenchmark {
+
+    private ObjectMapper plainMapper;
+
+    private JsonWriters jsonWriters;
+
+    private List<CourseDto> catalog;
+
+    private UserDto user;
+
+    @Setup
+    public void setUp() {
+        plainMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        jsonWriters = new JsonWriters(new JacksonConfig().objectMapper());
+        catalog = CatalogEncodingComparisonTest.realisticCatalog();
+        user = UserDto.builder()
+                .id(42L)
+                .username("learner42")
+                .email("learner42@skillbook.example")
+                .firstName("Alex")
+                .lastName("Taylor")
+                .role(Role.LEARNER)
+                .profilePhotoUrl("/photos/" + "a".repeat(64))
+                .enrolledCourses(catalog.subList(0, 20))
+                .build();
+    }
+
+    @Benchmark
+    public byte[] catalogPlainMapper() throws Exception {
+        return plainMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] catalogPreparedWriter() throws Exception {
+        return jsonWriters.courseList().writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] userPlainMapper() throws Exception {
+        return plainMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] userPreparedWriter() throws Exception {
+        return jsonWriters.user().writeValueAsBytes(user);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JsonWritersBenchmark.class.getName())
+                .build())
+                .run();
+    }
+}
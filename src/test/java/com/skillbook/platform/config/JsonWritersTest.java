@@ -0,0 +1,35 @@
+package com.skillbook.platform.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillbook.platform.dto.CourseDto;
+import com.skillbook.platform.dto.UserDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonWritersTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private final JsonWriters jsonWriters = new JsonWriters(objectMapper);
+
+    @Test
+    void preparedWritersShouldProduceSameJsonAsMapper() throws Exception {
+        List<CourseDto> catalog = CatalogEncodingComparisonTest.realisticCatalog().subList(0, 10);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(catalog),
+                jsonWriters.courseList().writeValueAsBytes(catalog));
+        assertArrayEquals(objectMapper.writeValueAsBytes(catalog.get(0)),
+                jsonWriters.course().writeValueAsBytes(catalog.get(0)));
+    }
+
+    @Test
+    void forTypeShouldResolveDeclaredResponseTypes() {
+        assertSame(jsonWriters.courseList(), jsonWriters.forType(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, CourseDto.class)));
+        assertSame(jsonWriters.user(), jsonWriters.forType(objectMapper.constructType(UserDto.class)));
+        assertNull(jsonWriters.forType(objectMapper.constructType(String.class)));
+    }
+}
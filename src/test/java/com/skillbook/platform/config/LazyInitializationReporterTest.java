@@ -0,0 +1,25 @@
+package com.skillbook.platform.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ProblemDetail;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyInitializationReporterTest {
+
+    @Test
+    void onLazyInitialization_shouldCountAndAnswerWithBareServerError() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LazyInitializationReporter reporter = new LazyInitializationReporter(registry);
+
+        ProblemDetail problem = reporter.onLazyInitialization(new LazyInitializationException(
+                "failed to lazily initialize a collection of role: "
+                        + "com.skillbook.platform.model.User.enrolledCourses"));
+
+        assertEquals(500, problem.getStatus());
+        assertNull(problem.getDetail());
+        assertEquals(1.0, registry.counter("jpa.lazy.initialization.failures").count());
+    }
+}
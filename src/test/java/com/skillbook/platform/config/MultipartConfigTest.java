@@ -0,0 +1,20 @@
+package com.skillbook.platform.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartConfigTest {
+
+    @Test
+    void multipartLimits_shouldFollowThePhotoLimit() {
+        MultipartConfigElement config = new MultipartConfig().multipartConfigElement(
+                new MultipartProperties(), DataSize.ofMegabytes(20));
+
+        assertEquals(DataSize.ofMegabytes(20).toBytes(), config.getMaxFileSize());
+        assertEquals(DataSize.ofMegabytes(21).toBytes(), config.getMaxRequestSize());
+    }
+}
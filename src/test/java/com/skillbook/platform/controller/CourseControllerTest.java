@@ -1,9 +1,23 @@
 package com.skillbook.platform.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.skillbook.platform.dto.BulkItemErrorDto;
+import com.skillbook.platform.dto.CourseBatchDto;
+import com.skillbook.platform.dto.CourseBulkResultDto;
+import com.skillbook.platform.dto.CourseDeltaDto;
 import com.skillbook.platform.dto.CourseDto;
 import com.skillbook.platform.dto.UserDto;
 import com.skillbook.platform.dto.InstructorDto;
+import com.skillbook.platform.enums.CourseChangeType;
+import com.skillbook.platform.enums.ExportFormat;
+import com.skillbook.platform.event.CourseChangedEvent;
+import com.skillbook.platform.model.Course;
+import com.skillbook.platform.model.User;
+import com.skillbook.platform.service.CourseCatalogCache;
+import com.skillbook.platform.service.CourseCatalogStreamer;
+import com.skillbook.platform.service.CourseChangeFeed;
 import com.skillbook.platform.service.CourseService;
 import com.skillbook.platform.enums.Role;
 import com.skillbook.platform.service.UserService;
@@ -15,17 +29,26 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
@@ -51,14 +74,26 @@ public class CourseControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private CourseCatalogStreamer catalogStreamer;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CourseCatalogCache catalogCache;
+
+    @Autowired
+    private CourseChangeFeed changeFeed;
+
     private CourseDto testCourse1;
     private CourseDto testCourse2;
 
     @BeforeEach
     void setUp() {
+        // the catalog bytes are cached across tests in the shared context
+        catalogCache.invalidate();
+
         InstructorDto instructor = InstructorDto.builder()
                 .id(1L)
                 .username("instructor1")
@@ -108,6 +143,168 @@ public class CourseControllerTest {
                 .andExpect(jsonPath("$[1].instructor.firstName").value("Jane"));
     }
 
+    @Test
+    public void whenGetAllCoursesWithGzip_thenReturnPrecompressedBytes() throws Exception {
+        given(courseService.getAllCourses()).willReturn(Arrays.asList(testCourse1, testCourse2));
+
+        MvcResult result = mockMvc.perform(get("/courses").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertEquals(String.valueOf(body.length), result.getResponse().getHeader("Content-Length"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals("Java Basics", objectMapper.readTree(json).get(0).get("title").asText());
+        }
+
+        mockMvc.perform(get("/courses"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$[1].title").value("Advanced Java"));
+
+        verify(courseService, times(1)).getAllCourses();
+    }
+
+    @Test
+    public void whenGetAllCoursesAcceptingCbor_thenReturnCbor() throws Exception {
+        given(courseService.getAllCourses()).willReturn(Arrays.asList(testCourse1, testCourse2));
+
+        byte[] body = mockMvc.perform(get("/courses").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode courses = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(2, courses.size());
+        assertEquals("Advanced Java", courses.get(1).get("title").asText());
+        assertEquals("instructor1", courses.get(0).get("instructor").get("username").asText());
+    }
+
+    @Test
+    public void whenGetAllCoursesWithoutAccept_thenReturnJson() throws Exception {
+        given(courseService.getAllCourses()).willReturn(List.of(testCourse1));
+
+        mockMvc.perform(get("/courses"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].title").value("Java Basics"));
+    }
+
+    @Test
+    public void whenStreamAllCourses_thenWriteCatalogToResponse() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("[{\"id\":1,\"title\":\"Java Basics\"}]".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(catalogStreamer).writeJson(any());
+
+        MvcResult result = mockMvc.perform(get("/courses").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].title").value("Java Basics"));
+
+        verify(courseService, never()).getAllCourses();
+    }
+
+    @Test
+    public void whenExportCsvWithGzip_thenStreamCompressedAttachment() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("id,title\r\n1,Java Basics\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(catalogStreamer).export(any(), eq(ExportFormat.CSV));
+
+        MvcResult result = mockMvc.perform(get("/courses/export")
+                        .param("format", "csv")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult completed = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Content-Disposition",
+                        containsString("courses.csv")))
+                .andReturn();
+
+        byte[] body = completed.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals("id,title\r\n1,Java Basics\r\n", csv);
+        }
+    }
+
+    @Test
+    public void whenExportWithUnknownFormat_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/courses/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(catalogStreamer);
+    }
+
+    @Test
+    public void whenGetCoursesByIds_thenReturnBatchInRequestOrder() throws Exception {
+        given(courseService.getCoursesByIds(List.of(2L, 1L, 99L))).willReturn(
+                new CourseBatchDto(List.of(testCourse2, testCourse1), List.of(99L)));
+
+        mockMvc.perform(get("/courses").param("ids", "2,1,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses[0].id").value(2))
+                .andExpect(jsonPath("$.courses[1].id").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(99));
+
+        verify(courseService, never()).getAllCourses();
+    }
+
+    @Test
+    public void whenPostCourseBatch_thenReturnBatchWithoutAuthentication() throws Exception {
+        given(courseService.getCoursesByIds(List.of(1L, 2L))).willReturn(
+                new CourseBatchDto(List.of(testCourse1, testCourse2), List.of()));
+
+        mockMvc.perform(post("/courses/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses[0].title").value("Java Basics"))
+                .andExpect(jsonPath("$.missingIds").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(roles = "INSTRUCTOR")
+    public void whenPostBulkCourses_thenReturnCreatedIds() throws Exception {
+        given(courseService.createCourses(anyList())).willReturn(
+                new CourseBulkResultDto(List.of(10L, 11L), List.of()));
+
+        mockMvc.perform(post("/courses/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(testCourse1, testCourse2))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdIds[1]").value(11));
+    }
+
+    @Test
+    @WithMockUser(roles = "INSTRUCTOR")
+    public void whenPostBulkCoursesWithInvalidItem_thenReturnItemErrors() throws Exception {
+        given(courseService.createCourses(anyList())).willReturn(new CourseBulkResultDto(
+                List.of(), List.of(new BulkItemErrorDto(1, "title", "Title is required"))));
+
+        mockMvc.perform(post("/courses/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(testCourse1, testCourse2))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].field").value("title"));
+    }
+
     @Test
     public void whenGetCoursesByCategory_thenReturnFilteredJsonArray() throws Exception {
         List<CourseDto> programmingCourses = Arrays.asList(testCourse1, testCourse2);
@@ -231,25 +428,12 @@ public class CourseControllerTest {
     @WithMockUser(username = "learner1", roles = "LEARNER")
     @Test
     public void whenLearnerEnrollsInCourse_thenReturn200() throws Exception {
-        UserDto mockUser = new UserDto();
-        mockUser.setId(1L);
-        mockUser.setUsername("learner1");
-        mockUser.setEnrolledCourses(new ArrayList<>());
-
-        CourseDto mockCourse = new CourseDto();
-        mockCourse.setId(4L);
-        mockCourse.setTitle("Math 101");
-
-        when(userService.findByUsername("learner1")).thenReturn(mockUser);
-        when(courseService.getCourseById(4L)).thenReturn(mockCourse);
-
-        doNothing().when(userService).updateUser(any(UserDto.class));
-
         mockMvc.perform(post("/courses/4/enroll"))
                 .andExpect(status().isOk())
                 .andExpect(content().string(containsString("Enrolled successfully")));
 
-        verify(userService, times(1)).updateUser(any(UserDto.class));
+        verify(userService, times(1)).enroll("learner1", 4L);
+        verify(userService, never()).updateUser(any(UserDto.class));
     }
 
 
@@ -257,13 +441,100 @@ public class CourseControllerTest {
     @WithMockUser(username = "learner1", roles = "LEARNER")
     @Test
     public void whenCourseNotFound_thenReturn404() throws Exception {
-        when(courseService.getCourseById(999L))
-                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        doThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"))
+                .when(userService).enroll("learner1", 999L);
 
         mockMvc.perform(post("/courses/999/enroll"))
                 .andExpect(status().isNotFound());
     }
 
+    @WithMockUser(username = "learner1", roles = "LEARNER")
+    @Test
+    public void whenEnrollmentKeepsConflicting_thenReturn409() throws Exception {
+        doThrow(new ObjectOptimisticLockingFailureException(User.class, 1L))
+                .when(userService).enroll("learner1", 4L);
+
+        mockMvc.perform(post("/courses/4/enroll"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void whenGetCourseById_thenReturnVersionAsETag() throws Exception {
+        testCourse1.setVersion(3L);
+        given(courseService.getCourseById(1L)).willReturn(testCourse1);
+
+        mockMvc.perform(get("/courses/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "INSTRUCTOR")
+    public void whenUpdateCourseWithIfMatch_thenReturnNewETag() throws Exception {
+        testCourse1.setVersion(4L);
+        given(courseService.updateCourse(eq(1L), any(CourseDto.class))).willReturn(testCourse1);
+
+        mockMvc.perform(put("/courses/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest())))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.title").value("Java Basics"));
+
+        verify(courseService).updateCourse(eq(1L),
+                argThat(dto -> Long.valueOf(3L).equals(dto.getVersion())));
+    }
+
+    @Test
+    @WithMockUser(roles = "INSTRUCTOR")
+    public void whenUpdateCourseWithStaleIfMatch_thenReturn412() throws Exception {
+        given(courseService.updateCourse(eq(1L), any(CourseDto.class)))
+                .willThrow(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED));
+
+        mockMvc.perform(put("/courses/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest())))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(roles = "INSTRUCTOR")
+    public void whenUpdateCourseWithMalformedIfMatch_thenReturn412() throws Exception {
+        mockMvc.perform(put("/courses/1")
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest())))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(courseService, never()).updateCourse(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "INSTRUCTOR")
+    public void whenUpdateConflictsAtCommit_thenReturn412() throws Exception {
+        given(courseService.updateCourse(eq(1L), any(CourseDto.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Course.class, 1L));
+
+        mockMvc.perform(put("/courses/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest())))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    private static CourseDto updateRequest() {
+        CourseDto courseDto = new CourseDto();
+        courseDto.setTitle("Java Basics");
+        courseDto.setDescription("Updated description");
+        courseDto.setCategory("Programming");
+        courseDto.setStartTime(LocalDateTime.now().plusDays(1));
+        courseDto.setDurationMinutes(60);
+        return courseDto;
+    }
+
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
     @Test
     public void whenUserNotLearner_thenReturn403() throws Exception {
@@ -277,4 +548,99 @@ public class CourseControllerTest {
         mockMvc.perform(post("/courses/4/enroll"))
                 .andExpect(status().isForbidden());
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void whenGetCourseChangesSinceVersion_thenReturnDelta() throws Exception {
+        CourseDto changed = CourseDto.builder().id(2L).title("Changed").build();
+        when(courseService.getChangesSince(41L))
+                .thenReturn(new CourseDeltaDto(List.of(changed), List.of(9L), 43L));
+
+        mockMvc.perform(get("/courses/changes").param("since", "41"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses[0].title").value("Changed"))
+                .andExpect(jsonPath("$.deletedIds[0]").value(9))
+                .andExpect(jsonPath("$.version").value(43));
+    }
+
+    @Test
+    public void whenSubscribedToCourseStream_thenReceiveChangeEvents() throws Exception {
+        MvcResult result = mockMvc.perform(get("/courses/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        changeFeed.onCourseChanged(new CourseChangedEvent(CourseChangeType.UPDATED, 7L));
+
+        String body = awaitContent(result, "\"courseId\":7");
+        assertTrue(body.contains("event:course"));
+        assertTrue(body.contains("\"type\":\"UPDATED\""));
+        assertTrue(result.getResponse().getContentType().startsWith("text/event-stream"));
+    }
+
+    @Test
+    public void whenCoursesCreatedInBulk_thenSubscriberReceivesOneEvent() throws Exception {
+        MvcResult result = mockMvc.perform(get("/courses/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        List<Long> ids = LongStream.range(1, 1001).boxed().toList();
+
+        changeFeed.onCourseChanged(new CourseChangedEvent(CourseChangeType.CREATED, ids));
+
+        String body = awaitContent(result, ",1000]");
+        assertEquals(1, body.split("event:course", -1).length - 1);
+        assertTrue(body.contains("\"courseIds\":[1,2,3,"));
+        assertFalse(body.contains("\"courseId\":"));
+        assertEquals(1, changeFeed.subscriberCount());
+    }
+
+    @Test
+    public void whenManyChangesCommitQuickly_thenSubscriberReceivesThemInOrder() throws Exception {
+        MvcResult result = mockMvc.perform(get("/courses/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        for (long id = 100; id < 120; id++) {
+            changeFeed.onCourseChanged(new CourseChangedEvent(CourseChangeType.UPDATED, id));
+        }
+
+        String body = awaitContent(result, "\"courseId\":119");
+        int previous = -1;
+        for (long id = 100; id < 120; id++) {
+            int index = body.indexOf("\"courseId\":" + id);
+            assertTrue(index > previous, "course " + id + " arrived out of order");
+            previous = index;
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "INSTRUCTOR")
+    public void whenDeleteCourse_thenReturnNoContent() throws Exception {
+        mockMvc.perform(delete("/courses/1"))
+                .andExpect(status().isNoContent());
+
+        verify(courseService).deleteCourse(1L);
+    }
+
+    @Test
+    @WithMockUser(roles = "LEARNER")
+    public void whenLearnerDeletesCourse_thenForbidden() throws Exception {
+        mockMvc.perform(delete("/courses/1"))
+                .andExpect(status().isForbidden());
+
+        verify(courseService, never()).deleteCourse(any());
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        // events are written from a virtual thread, so give the fan-out a moment
+        for (int i = 0; i < 50; i++) {
+            String body = result.getResponse().getContentAsString();
+            if (body.contains(expected)) {
+                return body;
+            }
+            Thread.sleep(20);
+        }
+        return result.getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,111 @@
+package com.skillbook.platform.controller;
+
+import com.skillbook.platform.dto.UserProfileDto;
+import com.skillbook.platform.service.PhotoService;
+import com.skillbook.platform.service.ThumbnailService;
+import com.skillbook.platform.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private PhotoService photoService;
+
+    @MockBean
+    private ThumbnailService thumbnailService;
+
+    private static MockMultipartFile userPart() {
+        return new MockMultipartFile("user", "", MediaType.APPLICATION_JSON_VALUE,
+                "{\"firstName\":\"Test\",\"lastName\":\"User\",\"email\":\"t@example.com\"}"
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldUpdateProfile_withIfMatchVersion_andReturnNewETag() throws Exception {
+        when(userService.updateProfile(eq("testuser"), any(), isNull(), isNull())).thenReturn(
+                UserProfileDto.builder().id(42L).username("testuser").version(4L).build());
+
+        mockMvc.perform(multipart("/users/update-profile")
+                        .file(userPart())
+                        .header("If-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(userService).updateProfile(eq("testuser"),
+                argThat(dto -> Long.valueOf(3L).equals(dto.getVersion())), isNull(), isNull());
+        verifyNoInteractions(photoService, thumbnailService);
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldReturn412_whenProfileChangedSinceRead() throws Exception {
+        when(userService.updateProfile(eq("testuser"), any(), any(), any())).thenThrow(
+                new ResponseStatusException(HttpStatus.PRECONDITION_FAILED));
+
+        mockMvc.perform(multipart("/users/update-profile")
+                        .file(userPart())
+                        .header("If-Match", "\"2\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldReject_staleIfMatch_beforeStoringThePhoto() throws Exception {
+        doThrow(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED))
+                .when(userService).checkProfileVersion("testuser", 2L);
+        MockMultipartFile photo = new MockMultipartFile("photo", "me.png", "image/png",
+                new byte[] {1, 2, 3});
+
+        mockMvc.perform(multipart("/users/update-profile")
+                        .file(userPart())
+                        .file(photo)
+                        .header("If-Match", "\"2\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(photoService);
+        verify(userService, never()).updateProfile(any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldReject_malformedIfMatch_beforeStoringThePhoto() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("photo", "me.png", "image/png",
+                new byte[] {1, 2, 3});
+
+        mockMvc.perform(multipart("/users/update-profile")
+                        .file(userPart())
+                        .file(photo)
+                        .header("If-Match", "W/\"3\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(photoService, userService);
+    }
+}
@@ -0,0 +1,121 @@
+package com.skillbook.platform.controller;
+
+import com.skillbook.platform.repository.projection.ProfilePhotoRow;
+import com.skillbook.platform.service.UserService;
+import com.skillbook.platform.storage.PhotoStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PhotoControllerTest {
+
+    private static final byte[] PNG_HEADER =
+            {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @MockBean
+    private UserService userService;
+
+    private byte[] content;
+
+    private String hash;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = Arrays.copyOf(PNG_HEADER, 64);
+        content[63] = 42;
+        hash = photoStore.store(new ByteArrayInputStream(content)).hash();
+    }
+
+    @Test
+    void getPhoto_shouldServeImmutableCacheableContent() throws Exception {
+        mockMvc.perform(get("/photos/" + hash))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL,
+                        "max-age=31536000, public, immutable"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void getPhoto_shouldReturn304_whenEtagMatches() throws Exception {
+        mockMvc.perform(get("/photos/" + hash)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getPhoto_shouldServeByteRange() throws Exception {
+        mockMvc.perform(get("/photos/" + hash).header(HttpHeaders.RANGE, "bytes=60-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 60-63/64"))
+                .andExpect(content().bytes(Arrays.copyOfRange(content, 60, 64)));
+    }
+
+    @Test
+    void getPhoto_shouldReturn416_whenRangeOutOfBounds() throws Exception {
+        mockMvc.perform(get("/photos/" + hash).header(HttpHeaders.RANGE, "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */64"));
+    }
+
+    @Test
+    void getPhoto_shouldReturn404_forUnknownOrMalformedHash() throws Exception {
+        mockMvc.perform(get("/photos/" + "f".repeat(64)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/photos/not-a-hash"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getPhoto_shouldNotCacheOriginal_whenVariantNotReady() throws Exception {
+        mockMvc.perform(get("/photos/" + hash).param("size", "64"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"));
+    }
+
+    @Test
+    void getPhoto_shouldCacheOriginal_whenSizeExceedsEveryVariant() throws Exception {
+        mockMvc.perform(get("/photos/" + hash).param("size", "4096"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL,
+                        "max-age=31536000, public, immutable"))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void getProfilePhoto_shouldRedirectToHashedUrl() throws Exception {
+        when(userService.getProfilePhoto(7L))
+                .thenReturn(new ProfilePhotoRow(hash, "image/png", 64L));
+
+        mockMvc.perform(get("/users/7/photo").param("size", "64"))
+                .andExpect(status().isFound())
+                .andExpect(header().string(HttpHeaders.LOCATION,
+                        "/photos/" + hash + "?size=64"));
+    }
+}
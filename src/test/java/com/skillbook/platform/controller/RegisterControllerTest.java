@@ -1,5 +1,6 @@
 package com.skillbook.platform.controller;
 
+import com.skillbook.platform.event.UsersCreatedEvent;
 import com.skillbook.platform.model.User;
 import com.skillbook.platform.repository.UserRepository;
 import com.skillbook.platform.enums.Role;
@@ -8,12 +9,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -26,6 +31,9 @@ public class RegisterControllerTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RegisterController registerController;
 
@@ -51,6 +59,7 @@ public class RegisterControllerTest {
         // then
         assertThat(response.getStatusCode().value()).isEqualTo(200);
         assertThat(response.getBody()).isEqualTo("User registered successfully");
+        verify(eventPublisher).publishEvent(new UsersCreatedEvent(List.of("newuser")));
     }
 
     @Test
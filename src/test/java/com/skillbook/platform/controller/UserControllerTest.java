@@ -1,9 +1,14 @@
 package com.skillbook.platform.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.skillbook.platform.dto.CourseDto;
+import com.skillbook.platform.dto.CursorPageDto;
 import com.skillbook.platform.dto.InstructorDto;
 import com.skillbook.platform.dto.UserDto;
+import com.skillbook.platform.dto.UserProfileDto;
 import com.skillbook.platform.enums.Role;
 import com.skillbook.platform.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +19,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -21,12 +27,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -74,14 +83,78 @@ class UserControllerTest {
     @Test
     @WithMockUser(username = "testuser")
     void shouldReturnCurrentUserProfile() throws Exception {
-        when(userService.findByUsername("testuser")).thenReturn(mockUser);
+        UserProfileDto profile = UserProfileDto.builder()
+                .id(42L)
+                .username("testuser")
+                .email("test@example.com")
+                .role(Role.LEARNER)
+                .profilePhotoUrl("/photos/" + "c".repeat(64))
+                .enrolledCourseCount(1)
+                .build();
+        when(userService.getProfile("testuser")).thenReturn(profile);
 
         mockMvc.perform(get("/users/me"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.username").value("testuser"))
-                .andExpect(jsonPath("$.enrolledCourses[0].title").value("Java 101"));
+                .andExpect(jsonPath("$.profilePhotoUrl").value("/photos/" + "c".repeat(64)))
+                .andExpect(jsonPath("$.enrolledCourseCount").value(1))
+                .andExpect(jsonPath("$.enrolledCourses").doesNotExist());
 
-        verify(userService).findByUsername("testuser");
+        verify(userService).getProfile("testuser");
+        verify(userService, never()).findByUsername(any());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldReturnCurrentUserProfileAsCborOrSmile_whenRequested() throws Exception {
+        UserProfileDto profile = UserProfileDto.builder()
+                .id(42L)
+                .username("testuser")
+                .role(Role.LEARNER)
+                .enrolledCourseCount(3)
+                .build();
+        when(userService.getProfile("testuser")).thenReturn(profile);
+
+        byte[] cbor = mockMvc.perform(get("/users/me").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode fromCbor = new ObjectMapper(new CBORFactory()).readTree(cbor);
+        assertEquals("testuser", fromCbor.get("username").asText());
+        assertEquals(3, fromCbor.get("enrolledCourseCount").asLong());
+
+        byte[] smile = mockMvc.perform(get("/users/me").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode fromSmile = new ObjectMapper(new SmileFactory()).readTree(smile);
+        assertEquals("LEARNER", fromSmile.get("role").asText());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldReturnCurrentUserProfileAsJson_byDefault() throws Exception {
+        when(userService.getProfile("testuser")).thenReturn(
+                UserProfileDto.builder().id(42L).username("testuser").build());
+
+        mockMvc.perform(get("/users/me").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldReturnCurrentUserCoursesPage() throws Exception {
+        CursorPageDto<CourseDto> page = CursorPageDto.<CourseDto>builder()
+                .items(mockUser.getEnrolledCourses())
+                .nextCursor(1L)
+                .build();
+        when(userService.getEnrolledCourses("testuser", 0L, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/users/me/courses").param("after", "0").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Java 101"))
+                .andExpect(jsonPath("$.nextCursor").value(1));
     }
 
     @Test
@@ -100,4 +173,85 @@ class UserControllerTest {
         verify(userService).updateUser(any(UserDto.class));
         verify(userService, times(2)).findByUsername("testuser"); // once before, once after
     }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldPatchUserProfile() throws Exception {
+        UserProfileDto patched = UserProfileDto.builder()
+                .id(42L)
+                .username("testuser")
+                .firstName("Patched")
+                .build();
+        when(userService.patchUser(eq("testuser"), any(), any())).thenReturn(patched);
+
+        mockMvc.perform(patch("/users/me")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\":\"Patched\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Patched"));
+
+        verify(userService).patchUser(eq("testuser"), any(), isNull());
+        verify(userService, never()).updateUser(any());
+        verify(userService, never()).findByUsername(any());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldReturnProfileVersionAsETag() throws Exception {
+        when(userService.getProfile("testuser")).thenReturn(
+                UserProfileDto.builder().id(42L).username("testuser").version(5L).build());
+
+        mockMvc.perform(get("/users/me"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldPassIfMatchVersion_whenPatching() throws Exception {
+        UserProfileDto patched = UserProfileDto.builder()
+                .id(42L)
+                .username("testuser")
+                .firstName("Patched")
+                .version(6L)
+                .build();
+        when(userService.patchUser(eq("testuser"), any(), eq(5L))).thenReturn(patched);
+
+        mockMvc.perform(patch("/users/me")
+                        .header("If-Match", "\"5\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\":\"Patched\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6\""));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldReturn412_whenPatchingStaleVersion() throws Exception {
+        when(userService.patchUser(eq("testuser"), any(), eq(4L))).thenThrow(
+                new ResponseStatusException(HttpStatus.PRECONDITION_FAILED));
+
+        mockMvc.perform(patch("/users/me")
+                        .header("If-Match", "\"4\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\":\"Patched\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void shouldPassIfMatchVersion_whenReplacingProfile() throws Exception {
+        mockUser.setVersion(8L);
+        when(userService.findByUsername("testuser")).thenReturn(mockUser);
+
+        mockMvc.perform(put("/users/me")
+                        .header("If-Match", "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(mockUser)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"8\""));
+
+        verify(userService).updateUser(argThat(dto -> Long.valueOf(7L).equals(dto.getVersion())));
+    }
 }
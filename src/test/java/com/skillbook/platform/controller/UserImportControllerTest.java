@@ -0,0 +1,68 @@
+package com.skillbook.platform.controller;
+
+import com.skillbook.platform.dto.UserImportStatusDto;
+import com.skillbook.platform.enums.ImportStatus;
+import com.skillbook.platform.service.UserImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserImportControllerTest {
+
+    private static final String CSV = "username,email,password,first_name,last_name,role\n"
+            + "alice,alice@example.com,secret,Alice,Smith,\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserImportService importService;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void startImport_shouldReturnAcceptedWithStatusLocation() throws Exception {
+        when(importService.submit(any())).thenReturn(UserImportStatusDto.builder()
+                .jobId("job-1")
+                .status(ImportStatus.QUEUED)
+                .build());
+
+        mockMvc.perform(post("/admin/users/imports").contentType("text/csv").content(CSV))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location",
+                        "http://localhost/admin/users/imports/job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @WithMockUser(roles = "LEARNER")
+    void startImport_shouldBeForbiddenForNonAdmins() throws Exception {
+        mockMvc.perform(post("/admin/users/imports").contentType("text/csv").content(CSV))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getImportErrors_shouldReturnConflict_whileRunning() throws Exception {
+        when(importService.getErrorFile("job-1"))
+                .thenThrow(new ResponseStatusException(HttpStatus.CONFLICT));
+
+        mockMvc.perform(get("/admin/users/imports/job-1/errors"))
+                .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,247 @@
+package com.skillbook.platform.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the router against two in-memory databases that each report their own name, so the
+ * test can see which one served a statement.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    private PrimaryPin primaryPin;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    private JdbcTemplate replicaLag;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = namedDatabase("primary");
+        DataSource replica = namedDatabase("replica");
+        replicaLag = new JdbcTemplate(replica);
+        replicaLag.execute(
+                "CREATE TABLE IF NOT EXISTS replica_lag (streaming BOOLEAN, seconds DOUBLE)");
+        replicaLag.execute("DELETE FROM replica_lag");
+        replicaLag.execute("INSERT INTO replica_lag VALUES (TRUE, 0)");
+        // the replica has not replayed the rename yet
+        courseTitle(primary, "Current title");
+        courseTitle(replica, "Stale title");
+
+        primaryPin = new PrimaryPin(Duration.ofMinutes(1), "test-secret", Clock.systemUTC());
+        routingDataSource = new ReadWriteRoutingDataSource(primary,
+                Map.of("replica-1", replica), primaryPin);
+        DataSource lazy = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(lazy);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(lazy);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryPin.close();
+    }
+
+    private static DataSource namedDatabase(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(20))");
+        jdbc.execute("DELETE FROM whoami");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static void courseTitle(DataSource dataSource, String title) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS course (title VARCHAR(40))");
+        jdbc.execute("DELETE FROM course");
+        jdbc.update("INSERT INTO course VALUES (?)", title);
+    }
+
+    // reads the title in a read-only transaction that has a Hibernate session bound, as a
+    // JpaTransactionManager transaction would
+    private String readTitle(Session session) {
+        return readOnly.execute(status -> {
+            Object key = new Object();
+            TransactionSynchronizationManager.bindResource(key, new EntityManagerHolder(session));
+            try {
+                return jdbcTemplate.queryForObject("SELECT title FROM course", String.class);
+            } finally {
+                TransactionSynchronizationManager.unbindResource(key);
+            }
+        });
+    }
+
+    private static Session session() {
+        Session session = mock(Session.class);
+        when(session.unwrap(Session.class)).thenReturn(session);
+        return session;
+    }
+
+    private String servedBy(TransactionTemplate transaction) {
+        return transaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    // runs the work as one request through the pin filter, with the client's cookie if any
+    private <T> T inRequest(Cookie cookie, MockHttpServletResponse response, Supplier<T> work)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        AtomicReference<T> result = new AtomicReference<>();
+        new PrimaryPinFilter(primaryPin).doFilter(request, response,
+                (req, res) -> result.set(work.get()));
+        return result.get();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica_andWritesToPrimary() {
+        assertEquals("replica", servedBy(readOnly));
+        assertEquals("primary", servedBy(readWrite));
+    }
+
+    @Test
+    void clientThatJustWroteReadsFromPrimary_othersStillUseReplica() throws Exception {
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        assertEquals("primary", inRequest(null, write, () -> {
+            servedBy(readWrite);
+            return servedBy(readOnly);
+        }));
+        Cookie pin = write.getCookie(PrimaryPin.COOKIE);
+        assertNotNull(pin);
+        assertTrue(pin.isHttpOnly());
+
+        // any node with the same secret honours it
+        assertEquals("primary", inRequest(pin, new MockHttpServletResponse(),
+                () -> servedBy(readOnly)));
+        assertEquals("replica", inRequest(null, new MockHttpServletResponse(),
+                () -> servedBy(readOnly)));
+    }
+
+    @Test
+    void forgedOrExpiredPinIsIgnored() throws Exception {
+        Instant later = Instant.now().plusSeconds(60);
+        Cookie forged = new Cookie(PrimaryPin.COOKIE, later.toEpochMilli() + ".bogus");
+        Cookie otherSecret = new Cookie(PrimaryPin.COOKIE,
+                new PrimaryPin(Duration.ofMinutes(1), "other-secret", Clock.systemUTC())
+                        .sign(later));
+        Cookie expired = new Cookie(PrimaryPin.COOKIE,
+                primaryPin.sign(Instant.now().minusSeconds(1)));
+
+        for (Cookie cookie : new Cookie[] {forged, otherSecret, expired}) {
+            assertEquals("replica", inRequest(cookie, new MockHttpServletResponse(),
+                    () -> servedBy(readOnly)));
+        }
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinClient() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertEquals("replica", inRequest(null, response, () -> {
+            readWrite.executeWithoutResult(status -> {
+                jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+                status.setRollbackOnly();
+            });
+            return servedBy(readOnly);
+        }));
+        assertNull(response.getCookie(PrimaryPin.COOKIE));
+    }
+
+    @Test
+    void writeOutsideRequestPinsNobody() {
+        servedBy(readWrite);
+
+        assertEquals("replica", servedBy(readOnly));
+    }
+
+    @Test
+    void readsFallBackToPrimary_whileReplicaIsOutOfRotation() {
+        routingDataSource.setInRotation("replica-1", false);
+        assertEquals("primary", servedBy(readOnly));
+
+        routingDataSource.setInRotation("replica-1", true);
+        assertEquals("replica", servedBy(readOnly));
+    }
+
+    @Test
+    void staleReplicaNeverFeedsSharedCaches() {
+        Session replicaSession = session();
+        assertEquals("Stale title", readTitle(replicaSession));
+        verify(replicaSession).setCacheMode(CacheMode.GET);
+
+        Session primarySession = session();
+        assertEquals("Current title",
+                ReadWriteRoutingDataSource.onPrimary(() -> readTitle(primarySession)));
+        verify(primarySession, never()).setCacheMode(any());
+
+        // the pin ends with the call
+        assertEquals("replica", servedBy(readOnly));
+    }
+
+    private ReplicaLagMonitor lagMonitor() {
+        return new ReplicaLagMonitor(routingDataSource, Duration.ofSeconds(10), "SELECT streaming, seconds FROM replica_lag");
+    }
+
+    @Test
+    void lagMonitorTakesLaggingReplicaOutOfRotation() {
+        ReplicaLagMonitor monitor = lagMonitor();
+
+        replicaLag.update("UPDATE replica_lag SET seconds = 30");
+        monitor.checkReplicas();
+        assertEquals("primary", servedBy(readOnly));
+
+        replicaLag.update("UPDATE replica_lag SET seconds = 1");
+        monitor.checkReplicas();
+        assertEquals("replica", servedBy(readOnly));
+    }
+
+    @Test
+    void lagMonitorTakesReplicaOutOfRotation_whenStreamingStopped() {
+        ReplicaLagMonitor monitor = lagMonitor();
+
+        // replayed everything it received, but the WAL receiver has disconnected
+        replicaLag.update("UPDATE replica_lag SET streaming = FALSE, seconds = 0");
+        monitor.checkReplicas();
+        assertEquals("primary", servedBy(readOnly));
+
+        replicaLag.update("UPDATE replica_lag SET streaming = TRUE");
+        monitor.checkReplicas();
+        assertEquals("replica", servedBy(readOnly));
+    }
+}
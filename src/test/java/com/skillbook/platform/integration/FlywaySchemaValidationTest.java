@@ -0,0 +1,91 @@
+package com.skillbook.platform.integration;
+
+import com.skillbook.platform.enums.Role;
+import com.skillbook.platform.migration.V5__Backfill_profile_photos;
+import com.skillbook.platform.model.Course;
+import com.skillbook.platform.model.User;
+import com.skillbook.platform.repository.CourseRepository;
+import com.skillbook.platform.repository.UserRepository;
+import com.skillbook.platform.storage.PhotoStore;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every Flyway migration against a real PostgreSQL and then lets Hibernate validate the
+ * entity mappings against the result, as production does at startup. The other tests build
+ * their H2 schema from the entities, so a mapping that drifts from db/migration (a column,
+ * a sequence's increment, a missing table) would otherwise only show up on deploy.
+ * Skipped when no Docker daemon is available.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({V5__Backfill_profile_photos.class, PhotoStore.class})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+public class FlywaySchemaValidationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Test
+    public void whenContextStarts_thenAllMigrationsAppliedAndMappingsValidated() {
+        // reaching this point means ddl-auto: validate accepted the migrated schema
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("6");
+        assertThat(jdbcTemplate.queryForObject(
+                "select version from catalog_version where id = 1", Long.class)).isZero();
+    }
+
+    @Test
+    public void whenSavingEntities_thenSequencesAndVersionColumnsWork() {
+        User instructor = userRepository.saveAndFlush(User.builder()
+                .username("flyway_instructor")
+                .email("flyway@example.com")
+                .password("password123")
+                .role(Role.INSTRUCTOR)
+                .build());
+        Course course = courseRepository.saveAndFlush(Course.builder()
+                .title("Migrated")
+                .category("schema")
+                .instructor(instructor)
+                .durationMinutes(30)
+                .changeVersion(1L)
+                .build());
+
+        assertThat(instructor.getId()).isNotNull();
+        assertThat(course.getId()).isNotNull();
+        assertThat(course.getVersion()).isZero();
+        assertThat(courseRepository.findChangedSince(0L)).extracting(Course::getTitle)
+                .containsExactly("Migrated");
+    }
+}
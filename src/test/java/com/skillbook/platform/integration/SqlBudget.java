@@ -0,0 +1,26 @@
+package com.skillbook.platform.integration;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements a test method may execute. Only the test method body is
+ * counted, not {@code @BeforeEach} fixtures; the test fails with the executed SQL listed
+ * when it goes over. Needs a {@link SqlStatementRecorder} in the Spring test context.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+
+    /**
+     * The statement budget.
+     *
+     * @return the maximum number of statements
+     */
+    int value();
+}
@@ -0,0 +1,44 @@
+package com.skillbook.platform.integration;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+/**
+ * Enforces {@link SqlBudget}: clears the recorder right before the test method runs and
+ * compares the statement count right after it.
+ */
+class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        recorder(context).reset();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        int budget = context.getRequiredTestMethod().getAnnotation(SqlBudget.class).value();
+        List<String> statements = recorder(context).getStatements();
+        if (statements.size() > budget) {
+            StringBuilder message = new StringBuilder()
+                    .append(context.getDisplayName())
+                    .append(" executed ").append(statements.size())
+                    .append(" SQL statements, budget is ").append(budget).append(':');
+            for (int i = 0; i < statements.size(); i++) {
+                message.append(System.lineSeparator())
+                        .append("  ").append(i + 1).append(". ").append(statements.get(i));
+            }
+            throw new AssertionError(message.toString());
+        }
+    }
+
+    private static SqlStatementRecorder recorder(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(SqlStatementRecorder.class);
+    }
+}
@@ -0,0 +1,168 @@
+package com.skillbook.platform.integration;
+
+import com.skillbook.platform.enums.Role;
+import com.skillbook.platform.model.Course;
+import com.skillbook.platform.model.User;
+import com.skillbook.platform.repository.CourseRepository;
+import com.skillbook.platform.repository.UserRepository;
+import com.skillbook.platform.service.CourseCatalogCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-endpoint SQL statement budgets, run against the real services so that N+1 query
+ * regressions fail the build. The fixture has many courses spread over several instructors;
+ * a budget that holds here holds for any row count. Fixtures are committed, not rolled
+ * back, so each request gets its own persistence context as in production.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlStatementRecorder.class)
+public class SqlBudgetTest {
+
+    private static final String CATEGORY = "sql-budget";
+
+    private static final String LEARNER = "budget_learner";
+
+    private static final int INSTRUCTORS = 5;
+
+    private static final int COURSES_PER_INSTRUCTOR = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseCatalogCache catalogCache;
+
+    private final List<Course> courses = new ArrayList<>();
+
+    private User learner;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < INSTRUCTORS; i++) {
+            User instructor = userRepository.save(user("budget_instructor" + i,
+                    Role.INSTRUCTOR));
+            for (int j = 0; j < COURSES_PER_INSTRUCTOR; j++) {
+                courses.add(courseRepository.save(Course.builder()
+                        .title("Course " + i + "-" + j)
+                        .description("Budget fixture")
+                        .category(CATEGORY)
+                        .instructor(instructor)
+                        .startTime(LocalDateTime.now().plusDays(1))
+                        .durationMinutes(60)
+                        .build()));
+            }
+        }
+        // the first course of every instructor
+        learner = user(LEARNER, Role.LEARNER);
+        learner.setEnrolledCourses(new HashSet<>());
+        for (int i = 0; i < courses.size(); i += COURSES_PER_INSTRUCTOR) {
+            learner.getEnrolledCourses().add(courses.get(i));
+        }
+        learner = userRepository.save(learner);
+        // fixtures bypass the services, so the catalog would not notice them
+        catalogCache.invalidate();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteById(learner.getId());
+        courseRepository.deleteAll(courses);
+        userRepository.deleteAll(userRepository.findAll().stream()
+                .filter(user -> user.getUsername().startsWith("budget_instructor"))
+                .toList());
+        courses.clear();
+        catalogCache.invalidate();
+    }
+
+    private static User user(String username, Role role) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password123")
+                .firstName("Budget")
+                .lastName(username)
+                .role(role)
+                .build();
+    }
+
+    @Test
+    @WithMockUser
+    @SqlBudget(2) // courses, then all their instructors in one IN query
+    public void getAllCourses() throws Exception {
+        mockMvc.perform(get("/courses"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser
+    @SqlBudget(2) // courses in the category, then their instructors
+    public void getCoursesByCategory() throws Exception {
+        mockMvc.perform(get("/courses/category/" + CATEGORY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()")
+                        .value(INSTRUCTORS * COURSES_PER_INSTRUCTOR));
+    }
+
+    @Test
+    @WithMockUser
+    @SqlBudget(2) // the course, then its instructor
+    public void getCourseById() throws Exception {
+        mockMvc.perform(get("/courses/" + courses.get(0).getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = LEARNER)
+    @SqlBudget(1) // one projection with the enrollment count
+    public void getCurrentUser() throws Exception {
+        mockMvc.perform(get("/users/me"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enrolledCourseCount").value(INSTRUCTORS));
+    }
+
+    @Test
+    @WithMockUser(username = LEARNER)
+    @SqlBudget(1) // one keyset page with instructor names joined in
+    public void getCurrentUserCourses() throws Exception {
+        mockMvc.perform(get("/users/me/courses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(INSTRUCTORS));
+    }
+
+    // user with enrolled courses, the new course, the user's version bump, then one insert
+    // for the new enrollment row
+    @Test
+    @WithMockUser(username = LEARNER, roles = "LEARNER")
+    @SqlBudget(4)
+    public void enrollInCourse() throws Exception {
+        mockMvc.perform(post("/courses/" + courses.get(1).getId() + "/enroll"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,72 @@
+package com.skillbook.platform.integration;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Wraps every {@link DataSource} in the test context in a JDBC proxy and records each
+ * statement execution. A JDBC batch counts once, as it is one round trip. Add it to a test
+ * context with {@code @Import(SqlStatementRecorder.class)} and declare budgets with
+ * {@link SqlBudget}.
+ */
+public class SqlStatementRecorder implements BeanPostProcessor, QueryExecutionListener {
+
+    private final List<String> statements = new ArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(this)
+                    .build();
+        }
+        return bean;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+        if (execInfo.isBatch()) {
+            sql += " [batch of " + execInfo.getBatchSize() + "]";
+        }
+        synchronized (statements) {
+            statements.add(sql);
+        }
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public void reset() {
+        synchronized (statements) {
+            statements.clear();
+        }
+    }
+
+    /**
+     * The statements executed since the last {@link #reset()}, in execution order.
+     *
+     * @return a copy of the recorded SQL
+     */
+    public List<String> getStatements() {
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+}
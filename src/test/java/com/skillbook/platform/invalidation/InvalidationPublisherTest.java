@@ -0,0 +1,133 @@
+package com.skillbook.platform.invalidation;
+
+import com.skillbook.platform.dto.UserDto;
+import com.skillbook.platform.enums.CourseChangeType;
+import com.skillbook.platform.enums.Role;
+import com.skillbook.platform.event.CourseChangedEvent;
+import com.skillbook.platform.event.UserChangedEvent;
+import com.skillbook.platform.event.UsersCreatedEvent;
+import com.skillbook.platform.model.User;
+import com.skillbook.platform.repository.CourseRepository;
+import com.skillbook.platform.repository.UserRepository;
+import com.skillbook.platform.repository.projection.UserProfileRow;
+import com.skillbook.platform.service.DtoBatchLoader;
+import com.skillbook.platform.service.UserService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Covers the path from a profile change to the NOTIFY other nodes act on. The service runs
+ * against mocked repositories; its events reach a real publisher.
+ */
+class InvalidationPublisherTest {
+
+    private static final String CHANNEL = "skillbook_cache_invalidation";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private InvalidationPublisher publisher;
+
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        publisher = new InvalidationPublisher(jdbcTemplate, CHANNEL);
+        userService = new UserService(userRepository, mock(CourseRepository.class),
+                mock(PasswordEncoder.class), mock(DtoBatchLoader.class),
+                event -> {
+                    if (event instanceof UserChangedEvent changed) {
+                        publisher.onUserChanged(changed);
+                    }
+                },
+                mock(TransactionTemplate.class),
+                Validation.buildDefaultValidatorFactory().getValidator());
+
+        User user = User.builder().id(5L).username("jane").email("jane@example.com")
+                .firstName("Jane").lastName("Smith").role(Role.INSTRUCTOR).build();
+        when(userRepository.findByUsername("jane")).thenReturn(Optional.of(user));
+        when(userRepository.findProfileByUsername("jane")).thenReturn(Optional.of(
+                new UserProfileRow(5L, "jane", "jane@example.com", "Janet", "Smith",
+                        Role.INSTRUCTOR, null, 0L, 1L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(publisher);
+    }
+
+    @Test
+    void profileForm_shouldNotifyOtherNodesOfTheUser_justBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        userService.updateProfile("jane", form("Janet"), null, null);
+
+        verifyNoInteractions(jdbcTemplate);
+        for (TransactionSynchronization sync
+                : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.beforeCommit(false);
+        }
+        verify(jdbcTemplate).queryForList(InvalidationPublisher.NOTIFY_SQL, CHANNEL,
+                publisher.getNode() + "/1//5/");
+    }
+
+    @Test
+    void bulkCreate_shouldNotifyOnce_withoutListingTheNewCourses() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.onCourseChanged(new CourseChangedEvent(CourseChangeType.CREATED,
+                LongStream.range(1, 10_001).boxed().toList()));
+        for (TransactionSynchronization sync
+                : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.beforeCommit(false);
+        }
+
+        verify(jdbcTemplate).queryForList(InvalidationPublisher.NOTIFY_SQL, CHANNEL,
+                publisher.getNode() + "/1///courses");
+    }
+
+    @Test
+    void registration_shouldNotifyOtherNodes() {
+        publisher.onUsersCreated(new UsersCreatedEvent(List.of("bob")));
+
+        verify(jdbcTemplate).queryForList(InvalidationPublisher.NOTIFY_SQL, CHANNEL,
+                publisher.getNode() + "/1///users");
+    }
+
+    @Test
+    void profileForm_shouldNotNotify_whenNothingChanged() {
+        userService.updateProfile("jane", form("Jane"), null, null);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static UserDto form(String firstName) {
+        return UserDto.builder()
+                .firstName(firstName)
+                .lastName("Smith")
+                .email("jane@example.com")
+                .build();
+    }
+}
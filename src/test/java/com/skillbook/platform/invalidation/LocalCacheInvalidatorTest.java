@@ -0,0 +1,134 @@
+package com.skillbook.platform.invalidation;
+
+import com.skillbook.platform.model.Course;
+import com.skillbook.platform.model.User;
+import com.skillbook.platform.service.CourseCatalogCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LocalCacheInvalidatorTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private CourseCatalogCache catalogCache;
+
+    private LocalCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        invalidator = new LocalCacheInvalidator(entityManagerFactory, catalogCache, "local");
+    }
+
+    private static String notice(long sequence, Set<Long> courseIds, Set<Long> userIds) {
+        return new InvalidationNotice("remote", sequence, courseIds, userIds, false, false, false)
+                .encode();
+    }
+
+    @Test
+    void notice_shouldRoundTripThroughPayload() {
+        InvalidationNotice notice = new InvalidationNotice("remote", 42, Set.of(7L), Set.of(),
+                false, false, false);
+        InvalidationNotice created = new InvalidationNotice("remote", 44, Set.of(), Set.of(),
+                true, true, false);
+
+        assertEquals("remote/42/7//", notice.encode());
+        assertEquals(notice, InvalidationNotice.parse(notice.encode()));
+        assertEquals("remote/44///courses,users", created.encode());
+        assertEquals(created, InvalidationNotice.parse(created.encode()));
+        // sent by nodes that predate the created part
+        assertEquals(notice, InvalidationNotice.parse("remote/42/7/"));
+        assertTrue(InvalidationNotice.parse("remote/43/*").everything());
+        assertThrows(IllegalArgumentException.class,
+                () -> InvalidationNotice.parse("remote/x/1/"));
+    }
+
+    @Test
+    void apply_shouldEvictChangedEntitiesAndStaleQueries() {
+        invalidator.apply(notice(1, Set.of(7L), Set.of(3L)));
+
+        verify(cache).evictEntityData(Course.class, 7L);
+        verify(cache).evictEntityData(User.class, 3L);
+        verify(cache).evictQueryRegion(LocalCacheInvalidator.COURSE_QUERY_REGION);
+        verify(cache).evictQueryRegion(LocalCacheInvalidator.USER_QUERY_REGION);
+        verify(catalogCache).invalidate();
+        verify(cache, never()).evictAllRegions();
+    }
+
+    @Test
+    void apply_shouldDropCourseQueriesAndCatalog_whenCoursesWereCreated() {
+        invalidator.apply(new InvalidationNotice("remote", 1, Set.of(), Set.of(), true, false,
+                false).encode());
+
+        verify(cache).evictQueryRegion(LocalCacheInvalidator.COURSE_QUERY_REGION);
+        verify(catalogCache).invalidate();
+        verify(cache, never()).evictEntityData(eq(Course.class), any());
+        verify(cache, never()).evictAllRegions();
+    }
+
+    @Test
+    void apply_shouldDropUsernameLookups_whenUsersWereCreated() {
+        invalidator.apply(new InvalidationNotice("remote", 1, Set.of(), Set.of(), false, true,
+                false).encode());
+
+        verify(cache).evictQueryRegion(LocalCacheInvalidator.USER_QUERY_REGION);
+        verify(cache, never()).evictQueryRegion(LocalCacheInvalidator.COURSE_QUERY_REGION);
+        verifyNoInteractions(catalogCache);
+    }
+
+    @Test
+    void apply_shouldIgnoreOwnNotices() {
+        invalidator.apply(new InvalidationNotice("local", 1, Set.of(7L), Set.of(), false, false,
+                false).encode());
+
+        verifyNoInteractions(cache, catalogCache);
+    }
+
+    @Test
+    void apply_shouldFlushEverything_whenSequenceSkips() {
+        invalidator.apply(notice(1, Set.of(7L), Set.of()));
+        invalidator.apply(notice(3, Set.of(8L), Set.of()));
+
+        verify(cache).evictAllRegions();
+    }
+
+    @Test
+    void apply_shouldStillEvictLateNotice_afterGapFlush() {
+        invalidator.apply(notice(1, Set.of(7L), Set.of()));
+        invalidator.apply(notice(3, Set.of(8L), Set.of()));
+        invalidator.apply(notice(2, Set.of(9L), Set.of()));
+        invalidator.apply(notice(4, Set.of(10L), Set.of()));
+
+        verify(cache, times(1)).evictAllRegions();
+        verify(cache).evictEntityData(Course.class, 9L);
+        verify(cache).evictEntityData(Course.class, 10L);
+    }
+
+    @Test
+    void apply_shouldFlushEverything_whenPayloadIsUnreadable() {
+        invalidator.apply("garbage");
+
+        verify(cache).evictAllRegions();
+        verify(catalogCache).invalidate();
+    }
+}
@@ -0,0 +1,101 @@
+package com.skillbook.platform.migration;
+
+import com.skillbook.platform.storage.PhotoStore;
+import org.flywaydb.core.api.migration.Context;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class V5__Backfill_profile_photosTest {
+
+    private static final byte[] PNG_HEADER =
+            {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    @TempDir
+    Path root;
+
+    private Connection connection;
+
+    private PhotoStore photoStore;
+
+    private Context context;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:photo-backfill;MODE=PostgreSQL");
+        connection = dataSource.getConnection();
+        photoStore = new PhotoStore(root.toString());
+        context = mock(Context.class);
+        when(context.getConnection()).thenReturn(connection);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connection.close();
+    }
+
+    private void createUsers(boolean legacyColumn) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY,"
+                    + " photo_hash VARCHAR(64), photo_content_type VARCHAR(255), photo_size BIGINT"
+                    + (legacyColumn ? ", profilepic VARBINARY(1000)" : "") + ")");
+        }
+    }
+
+    @Test
+    void migrate_shouldCopyLegacyPhotosIntoTheStore() throws Exception {
+        createUsers(true);
+        byte[] photo = Arrays.copyOf(PNG_HEADER, 32);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (id, profilepic) VALUES (?, ?)")) {
+            insert.setLong(1, 1);
+            insert.setBytes(2, photo);
+            insert.execute();
+            insert.setLong(1, 2);
+            insert.setBytes(2, null);
+            insert.execute();
+        }
+
+        new V5__Backfill_profile_photos(photoStore).migrate(context);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "SELECT photo_hash, photo_content_type, photo_size FROM users ORDER BY id")) {
+            assertTrue(rows.next());
+            String hash = rows.getString(1);
+            assertArrayEquals(photo, Files.readAllBytes(photoStore.resolve(hash)));
+            assertEquals("image/png", rows.getString(2));
+            assertEquals(32, rows.getLong(3));
+            assertTrue(rows.next());
+            assertNull(rows.getString(1));
+        }
+    }
+
+    @Test
+    void migrate_shouldDoNothing_withoutTheLegacyColumn() throws Exception {
+        createUsers(false);
+
+        new V5__Backfill_profile_photos(photoStore).migrate(context);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM users")) {
+            assertTrue(rows.next());
+            assertEquals(0, rows.getInt(1));
+        }
+    }
+}
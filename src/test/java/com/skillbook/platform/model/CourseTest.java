@@ -67,7 +67,7 @@ class CourseTest {
         Set<User> enrolledUsers = new HashSet<>();
 
         Course course = new Course(1L, "Java Course", "Description", "Long Description", 
-                                  "Programming", instructor, startTime, 120, enrolledUsers);
+                                  "Programming", instructor, startTime, 120, enrolledUsers, 7L);
 
         assertEquals(1L, course.getId());
         assertEquals("Java Course", course.getTitle());
@@ -78,6 +78,7 @@ class CourseTest {
         assertEquals(startTime, course.getStartTime());
         assertEquals(120, course.getDurationMinutes());
         assertEquals(enrolledUsers, course.getEnrolledUsers());
+        assertEquals(7L, course.getChangeVersion());
     }
 
     @Test
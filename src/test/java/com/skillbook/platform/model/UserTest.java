@@ -62,10 +62,10 @@ class UserTest {
     @Test
     void testUserAllArgsConstructor() {
         Set<Course> courses = new HashSet<>();
-        byte[] photo = "photo".getBytes();
+        String photoHash = "a".repeat(64);
         
         User user = new User(1L, "testuser", "test@example.com", "password123", 
-                            "John", "Doe", Role.LEARNER, photo, courses);
+                            "John", "Doe", Role.LEARNER, photoHash, "image/png", 42L, courses);
 
         assertEquals(1L, user.getId());
         assertEquals("testuser", user.getUsername());
@@ -74,7 +74,9 @@ class UserTest {
         assertEquals("John", user.getFirstName());
         assertEquals("Doe", user.getLastName());
         assertEquals(Role.LEARNER, user.getRole());
-        assertArrayEquals(photo, user.getProfilePhoto());
+        assertEquals(photoHash, user.getProfilePhotoHash());
+        assertEquals("image/png", user.getProfilePhotoContentType());
+        assertEquals(42L, user.getProfilePhotoSize());
         assertEquals(courses, user.getEnrolledCourses());
     }
 
@@ -82,7 +84,7 @@ class UserTest {
     void testGettersAndSetters() {
         User user = new User();
         Set<Course> courses = new HashSet<>();
-        byte[] photo = "photo".getBytes();
+        String photoHash = "a".repeat(64);
 
         user.setId(1L);
         user.setUsername("testuser");
@@ -91,7 +93,7 @@ class UserTest {
         user.setFirstName("John");
         user.setLastName("Doe");
         user.setRole(Role.LEARNER);
-        user.setProfilePhoto(photo);
+        user.setProfilePhotoHash(photoHash);
         user.setEnrolledCourses(courses);
 
         assertEquals(1L, user.getId());
@@ -101,7 +103,7 @@ class UserTest {
         assertEquals("John", user.getFirstName());
         assertEquals("Doe", user.getLastName());
         assertEquals(Role.LEARNER, user.getRole());
-        assertArrayEquals(photo, user.getProfilePhoto());
+        assertEquals(photoHash, user.getProfilePhotoHash());
         assertEquals(courses, user.getEnrolledCourses());
     }
 
@@ -224,8 +226,7 @@ class UserTest {
         assertTrue(toString.contains("John"));
         assertTrue(toString.contains("Doe"));
         assertTrue(toString.contains("LEARNER"));
-        // profilePhoto and enrolledCourses should be excluded from toString
-        assertFalse(toString.contains("profilePhoto"));
+        // enrolledCourses should be excluded from toString
         assertFalse(toString.contains("enrolledCourses"));
     }
 
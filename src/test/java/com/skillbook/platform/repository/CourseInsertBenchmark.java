@@ -0,0 +1,97 @@
+package com.skillbook.platform.repository;
+
+import com.skillbook.platform.model.Course;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts 100k courses twice with the same JDBC batch size: once through
+ * {@link IdentityCourse}, the old identity-id mapping, for which Hibernate must insert each
+ * row on its own to read back its key, and once through {@link Course} and its pooled
+ * sequence, whose inserts go out in batches.
+ *
+ * <p>Skipped in normal builds. Run with
+ * {@code mvn test -Dtest=CourseInsertBenchmark -Dbenchmark=true}. Against the in-memory H2
+ * database a round trip is nearly free, so point it at a scratch PostgreSQL with
+ * {@code -Dspring.datasource.url=... -Dspring.jpa.properties.hibernate.dialect=...} to see
+ * the difference network round trips make.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.mapping-resources=benchmark/identity-course-orm.xml",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CourseInsertBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseInsertBenchmark.class);
+
+    private static final int COURSES = 100_000;
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Test
+    public void insertCoursesWithIdentityIdsThenPooledSequence() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        long identity = insertCourses(i -> IdentityCourse.builder()
+                .title("Course " + i)
+                .description("Benchmark course " + i)
+                .category("Programming")
+                .startTime(start.plusHours(i))
+                .durationMinutes(60)
+                .build());
+        long pooled = insertCourses(i -> Course.builder()
+                .title("Course " + i)
+                .description("Benchmark course " + i)
+                .category("Programming")
+                .startTime(start.plusHours(i))
+                .durationMinutes(60)
+                .build());
+
+        log.info("Inserted {} courses with JDBC batch size {}: {} ms with identity ids, "
+                + "{} ms with the pooled sequence", COURSES, BATCH_SIZE, identity, pooled);
+        assertThat(courseRepository.count()).isEqualTo(COURSES);
+        assertThat(entityManager.createQuery("select count(c) from IdentityCourse c", Long.class)
+                .getSingleResult()).isEqualTo(COURSES);
+    }
+
+    private long insertCourses(IntFunction<Object> course) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(BATCH_SIZE);
+
+        long started = System.nanoTime();
+        for (int i = 1; i <= COURSES; i++) {
+            // identity ids make persist() run the INSERT at once, whatever the batch size
+            session.persist(course.apply(i));
+            if (i % BATCH_SIZE == 0) {
+                session.flush();
+                // keep the persistence context small so dirty checking does not dominate
+                session.clear();
+            }
+        }
+        session.flush();
+        session.clear();
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,6 +15,7 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@ActiveProfiles("test")
 public class CourseRepositoryTest {
 
     @Autowired
@@ -127,4 +129,87 @@ public class CourseRepositoryTest {
         assertThat(found).extracting(Course::getCategory)
                 .containsOnly("Fitness");
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void whenFindChangedSince_thenReturnNewerCoursesInVersionOrder() {
+        // given
+        User instructor = createInstructor();
+        for (long version : new long[] {5L, 3L, 8L}) {
+            entityManager.persist(Course.builder()
+                    .title("Course v" + version)
+                    .instructor(instructor)
+                    .durationMinutes(60)
+                    .changeVersion(version)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<Course> changed = courseRepository.findChangedSince(4L);
+
+        // then
+        assertThat(changed).extracting(Course::getChangeVersion).containsExactly(5L, 8L);
+        assertThat(changed.get(0).getInstructor().getUsername()).isEqualTo("instructor1");
+    }
+
+    @Test
+    public void whenStampChangeVersionByInstructor_thenOnlyTheirCoursesAreRestamped() {
+        // given
+        User instructor = createInstructor();
+        User other = entityManager.persist(User.builder()
+                .username("instructor2")
+                .email("other@test.com")
+                .password("password123")
+                .role(Role.INSTRUCTOR)
+                .build());
+        entityManager.persist(Course.builder().title("Mine").instructor(instructor)
+                .durationMinutes(60).changeVersion(2L).build());
+        entityManager.persist(Course.builder().title("Theirs").instructor(other)
+                .durationMinutes(60).changeVersion(3L).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        int stamped = courseRepository.stampChangeVersionByInstructorId(instructor.getId(), 7L);
+
+        // then
+        assertThat(stamped).isEqualTo(1);
+        assertThat(courseRepository.existsByInstructorId(instructor.getId())).isTrue();
+        assertThat(courseRepository.findChangedSince(3L)).extracting(Course::getTitle)
+                .containsExactly("Mine");
+    }
+
+    @Test
+    public void whenDeleteEnrollmentsByCourse_thenLearnersAreUntouched() {
+        // given
+        User instructor = createInstructor();
+        Course deleted = entityManager.persist(Course.builder().title("Going").instructor(instructor)
+                .durationMinutes(60).build());
+        Course kept = entityManager.persist(Course.builder().title("Staying").instructor(instructor)
+                .durationMinutes(60).build());
+        User learner = entityManager.persist(User.builder()
+                .username("learner1")
+                .email("learner@test.com")
+                .password("password123")
+                .role(Role.LEARNER)
+                .build());
+        learner.getEnrolledCourses().addAll(List.of(deleted, kept));
+        entityManager.flush();
+        Long version = learner.getVersion();
+        entityManager.clear();
+
+        // when
+        int removed = courseRepository.deleteEnrollmentsByCourseId(deleted.getId());
+        courseRepository.deleteById(deleted.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        // then
+        assertThat(removed).isEqualTo(1);
+        User reloaded = userRepository.findWithEnrolledCoursesByUsername("learner1").orElseThrow();
+        assertThat(reloaded.getEnrolledCourses()).extracting(Course::getTitle)
+                .containsExactly("Staying");
+        assertThat(reloaded.getVersion()).isEqualTo(version);
+    }
+}
@@ -0,0 +1,41 @@
+package com.skillbook.platform.repository;
+
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The course mapping as it was before pooled sequences: same columns, identity ids. Used by
+ * {@link CourseInsertBenchmark} as its baseline.
+ * <p>
+ * Deliberately not annotated with {@code @Entity}, so the entity scan of other tests never
+ * picks it up; {@code benchmark/identity-course-orm.xml} registers it for the benchmark only.
+ */
+@Table(name = "course_identity_benchmark")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdentityCourse {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private String category;
+
+    private LocalDateTime startTime;
+
+    private int durationMinutes;
+}
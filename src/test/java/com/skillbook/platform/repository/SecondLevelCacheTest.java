@@ -0,0 +1,144 @@
+package com.skillbook.platform.repository;
+
+import com.skillbook.platform.enums.Role;
+import com.skillbook.platform.model.Course;
+import com.skillbook.platform.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises the second-level cache regions from ehcache.xml. Each repository call runs in its
+ * own transaction, as in production, so cache puts and evictions happen on commit.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Course saveCourse(String title, String category) {
+        return courseRepository.save(Course.builder()
+                .title(title)
+                .category(category)
+                .startTime(LocalDateTime.now().plusDays(1))
+                .durationMinutes(60)
+                .build());
+    }
+
+    @Test
+    public void whenFindByIdTwice_thenSecondLoadIsACacheHit() {
+        Long id = saveCourse("Java Basics", "Programming").getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        courseRepository.findById(id);
+        courseRepository.findById(id);
+
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics("course");
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenCourseUpdatedThroughRepository_thenCacheServesNewState() {
+        Course course = saveCourse("Java Basics", "Programming");
+        courseRepository.findById(course.getId());
+
+        course.setTitle("Java Fundamentals");
+        courseRepository.save(course);
+
+        assertThat(courseRepository.findById(course.getId()))
+                .get()
+                .extracting(Course::getTitle)
+                .isEqualTo("Java Fundamentals");
+    }
+
+    @Test
+    public void whenCourseDeleted_thenItIsEvicted() {
+        Long id = saveCourse("Java Basics", "Programming").getId();
+        courseRepository.findById(id);
+
+        courseRepository.deleteById(id);
+
+        assertThat(courseRepository.findById(id)).isEmpty();
+        assertThat(entityManagerFactory.getCache().contains(Course.class, id)).isFalse();
+    }
+
+    @Test
+    public void whenFindByCategoryRepeated_thenServedFromQueryCacheUntilCourseTableChanges() {
+        saveCourse("Java Basics", "Programming");
+        statistics.clear();
+
+        assertThat(courseRepository.findByCategory("Programming")).hasSize(1);
+        assertThat(courseRepository.findByCategory("Programming")).hasSize(1);
+
+        CacheRegionStatistics region = statistics.getQueryRegionStatistics("course-by-category");
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(1);
+
+        saveCourse("Advanced Java", "Programming");
+
+        assertThat(courseRepository.findByCategory("Programming")).hasSize(2);
+    }
+
+    @Test
+    public void whenUserUpdatedThroughRepository_thenUsernameLookupSeesNewState() {
+        User user = userRepository.save(User.builder()
+                .username("cached_user")
+                .email("cached@test.com")
+                .password("password123")
+                .firstName("Before")
+                .role(Role.LEARNER)
+                .build());
+        userRepository.findByUsername("cached_user");
+
+        user.setFirstName("After");
+        userRepository.save(user);
+
+        assertThat(userRepository.findByUsername("cached_user"))
+                .get()
+                .extracting(User::getFirstName)
+                .isEqualTo("After");
+    }
+}
@@ -26,7 +26,7 @@ public class UserRepositoryTest {
     private UserRepository userRepository;
 
     private User createTestUser(String username) {
-        byte[] emptyPic = new byte[] { (byte)0 }; // Single byte array with value 0
+        String photoHash = "0".repeat(64);
         return User.builder()
                 .username(username)
                 .email(username + "@example.com")
@@ -34,7 +34,7 @@ public class UserRepositoryTest {
                 .firstName("Test")
                 .lastName("User")
                 .role(Role.LEARNER)
-                .profilePhoto(emptyPic)
+                .profilePhotoHash(photoHash)
                 .build();
     }
 
@@ -55,7 +55,7 @@ public class UserRepositoryTest {
         assertThat(found.get().getFirstName()).isEqualTo(user.getFirstName());
         assertThat(found.get().getLastName()).isEqualTo(user.getLastName());
         assertThat(found.get().getRole()).isEqualTo(user.getRole());
-        assertThat(found.get().getProfilePhoto()).isNotNull();
+        assertThat(found.get().getProfilePhotoHash()).isNotNull();
     }
 
     @Test
@@ -83,6 +83,6 @@ public class UserRepositoryTest {
         assertThat(saved.getFirstName()).isEqualTo("Test");
         assertThat(saved.getLastName()).isEqualTo("User");
         assertThat(saved.getRole()).isEqualTo(Role.LEARNER);
-        assertThat(saved.getProfilePhoto()).isNotNull();
+        assertThat(saved.getProfilePhotoHash()).isNotNull();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.skillbook.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillbook.platform.config.JsonWriters;
+import com.skillbook.platform.dto.CourseDto;
+import com.skillbook.platform.enums.CourseChangeType;
+import com.skillbook.platform.event.CourseChangedEvent;
+import com.skillbook.platform.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CourseCatalogCacheTest {
+
+    @Mock
+    private CourseService courseService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CourseCatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        catalogCache = new CourseCatalogCache(courseService, new JsonWriters(objectMapper));
+    }
+
+    @Test
+    void get_shouldSerializeOnceAndServeSameBytes() throws Exception {
+        when(courseService.getAllCourses()).thenReturn(
+                List.of(CourseDto.builder().id(1L).title("Java 101").build()));
+
+        CourseCatalogCache.Snapshot first = catalogCache.get();
+        CourseCatalogCache.Snapshot second = catalogCache.get();
+
+        assertSame(first, second);
+        assertEquals("Java 101", objectMapper.readTree(first.json()).get(0).get("title").asText());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertArrayEquals(first.json(), in.readAllBytes());
+        }
+        verify(courseService, times(1)).getAllCourses();
+    }
+
+    @Test
+    void get_shouldRebuild_afterCourseChanged() throws Exception {
+        when(courseService.getAllCourses())
+                .thenReturn(List.of(CourseDto.builder().id(1L).title("Old").build()))
+                .thenReturn(List.of(CourseDto.builder().id(1L).title("New").build()));
+
+        CourseCatalogCache.Snapshot before = catalogCache.get();
+        catalogCache.onCourseChanged(new CourseChangedEvent(CourseChangeType.UPDATED, 1L));
+        CourseCatalogCache.Snapshot after = catalogCache.get();
+
+        assertTrue(after.version() > before.version());
+        assertEquals("New", objectMapper.readTree(after.json()).get(0).get("title").asText());
+        verify(courseService, times(2)).getAllCourses();
+    }
+
+    @Test
+    void get_shouldRebuild_afterUserChanged() {
+        when(courseService.getAllCourses()).thenReturn(List.of());
+
+        catalogCache.get();
+        catalogCache.onUserChanged(new UserChangedEvent(7L));
+        catalogCache.get();
+
+        verify(courseService, times(2)).getAllCourses();
+    }
+
+    @Test
+    void get_shouldNotRebuild_afterEnrollmentChange() {
+        when(courseService.getAllCourses()).thenReturn(List.of());
+
+        catalogCache.get();
+        catalogCache.onCourseChanged(new CourseChangedEvent(CourseChangeType.ENROLLMENT, 1L));
+        catalogCache.get();
+
+        verify(courseService, times(1)).getAllCourses();
+    }
+}
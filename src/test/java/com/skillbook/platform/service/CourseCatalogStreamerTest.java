@@ -0,0 +1,135 @@
+package com.skillbook.platform.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillbook.platform.config.JacksonConfig;
+import com.skillbook.platform.config.JsonWriters;
+import com.skillbook.platform.enums.ExportFormat;
+import com.skillbook.platform.enums.Role;
+import com.skillbook.platform.model.Course;
+import com.skillbook.platform.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "courses.stream.fetch-size=1")
+@Import({JacksonConfig.class, JsonWriters.class, CourseCatalogStreamer.class})
+@ActiveProfiles("test")
+public class CourseCatalogStreamerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CourseCatalogStreamer catalogStreamer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void writeJson_shouldStreamCoursesInDtoShape() throws Exception {
+        User instructor = entityManager.persist(User.builder()
+                .username("instructor1")
+                .email("instructor@test.com")
+                .password("password123")
+                .firstName("Jane")
+                .lastName("Doe")
+                .role(Role.INSTRUCTOR)
+                .build());
+        Course withInstructor = entityManager.persist(Course.builder()
+                .title("Java Basics")
+                .description("Introduction to Java")
+                .category("Programming")
+                .instructor(instructor)
+                .startTime(LocalDateTime.of(2025, 5, 15, 16, 54))
+                .durationMinutes(90)
+                .build());
+        entityManager.persist(Course.builder()
+                .title("Unassigned")
+                .description("No instructor yet")
+                .category("Programming")
+                .startTime(LocalDateTime.of(2025, 6, 1, 9, 0))
+                .durationMinutes(30)
+                .build());
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalogStreamer.writeJson(out);
+
+        JsonNode courses = objectMapper.readTree(out.toByteArray());
+        assertThat(courses.isArray()).isTrue();
+        assertThat(courses).hasSize(2);
+
+        JsonNode first = courses.get(0);
+        assertThat(first.get("id").asLong()).isEqualTo(withInstructor.getId());
+        assertThat(first.get("title").asText()).isEqualTo("Java Basics");
+        assertThat(first.get("durationMinutes").asInt()).isEqualTo(90);
+        assertThat(first.get("instructorId").asLong()).isEqualTo(instructor.getId());
+        assertThat(first.get("instructor").get("username").asText()).isEqualTo("instructor1");
+        assertThat(first.get("instructor").get("firstName").asText()).isEqualTo("Jane");
+        assertThat(first.get("startTime"))
+                .isEqualTo(objectMapper.valueToTree(LocalDateTime.of(2025, 5, 15, 16, 54)));
+
+        JsonNode second = courses.get(1);
+        assertThat(second.get("title").asText()).isEqualTo("Unassigned");
+        assertThat(second.get("instructorId").isNull()).isTrue();
+        assertThat(second.get("instructor").isNull()).isTrue();
+    }
+
+    @Test
+    public void writeJson_shouldWriteEmptyArray_whenNoCourses() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        catalogStreamer.writeJson(out);
+
+        assertThat(out.toString()).isEqualTo("[]");
+    }
+
+    @Test
+    public void export_shouldWriteOneJsonObjectPerLine_whenNdjson() throws Exception {
+        persistCourse("First", "Plain description");
+        persistCourse("Second", "Plain description");
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalogStreamer.export(out, ExportFormat.NDJSON);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("title").asText()).isEqualTo("First");
+        assertThat(objectMapper.readTree(lines[1]).get("title").asText()).isEqualTo("Second");
+    }
+
+    @Test
+    public void export_shouldQuoteSpecialCharacters_whenCsv() throws Exception {
+        Course course = persistCourse("Java, \"the good parts\"", "Line one\nLine two");
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalogStreamer.export(out, ExportFormat.CSV);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith(String.join(",", CourseCatalogStreamer.CSV_HEADER) + "\r\n");
+        assertThat(csv).contains(course.getId() + ",\"Java, \"\"the good parts\"\"\","
+                + "\"Line one\nLine two\",,Programming,2025-06-01T09:00,30,,,,,\r\n");
+    }
+
+    private Course persistCourse(String title, String description) {
+        return entityManager.persist(Course.builder()
+                .title(title)
+                .description(description)
+                .category("Programming")
+                .startTime(LocalDateTime.of(2025, 6, 1, 9, 0))
+                .durationMinutes(30)
+                .build());
+    }
+}
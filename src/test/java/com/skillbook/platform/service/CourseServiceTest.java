@@ -1,19 +1,38 @@
 package com.skillbook.platform.service;
 
+import com.skillbook.platform.dto.BulkItemErrorDto;
+import com.skillbook.platform.dto.CourseBatchDto;
+import com.skillbook.platform.dto.CourseBulkResultDto;
+import com.skillbook.platform.dto.CourseDeltaDto;
 import com.skillbook.platform.dto.CourseDto;
+import com.skillbook.platform.enums.CourseChangeType;
+import com.skillbook.platform.event.CourseChangedEvent;
+import com.skillbook.platform.event.UserChangedEvent;
+import com.skillbook.platform.model.CatalogVersion;
 import com.skillbook.platform.model.Course;
+import com.skillbook.platform.model.CourseTombstone;
 import com.skillbook.platform.model.User;
+import com.skillbook.platform.repository.CatalogVersionRepository;
 import com.skillbook.platform.repository.CourseRepository;
+import com.skillbook.platform.repository.CourseTombstoneRepository;
 import com.skillbook.platform.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +48,21 @@ class CourseServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private DtoBatchLoader batchLoader;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CatalogVersionRepository catalogVersionRepository;
+
+    @Mock
+    private CourseTombstoneRepository tombstoneRepository;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -151,6 +185,7 @@ class CourseServiceTest {
         assertEquals("Programming", savedCourse.getCategory());
         assertEquals(90, savedCourse.getDurationMinutes());
         assertEquals(instructor, savedCourse.getInstructor());
+        verify(eventPublisher).publishEvent(any(CourseChangedEvent.class));
     }
 
     @Test
@@ -239,6 +274,8 @@ class CourseServiceTest {
         assertEquals(LocalDateTime.of(2024, 7, 1, 14, 0), existingCourse.getStartTime());
         
         verify(courseRepository).save(existingCourse);
+        verify(eventPublisher).publishEvent(
+                new CourseChangedEvent(CourseChangeType.UPDATED, 1L));
     }
 
     @Test
@@ -255,6 +292,29 @@ class CourseServiceTest {
         verify(courseRepository, never()).save(any());
     }
 
+    @Test
+    void updateCourse_shouldRejectStaleVersion() {
+        Course existingCourse = Course.builder()
+                .id(1L)
+                .title("Old Title")
+                .version(3L)
+                .build();
+        CourseDto updateDto = CourseDto.builder()
+                .title("Updated Title")
+                .version(2L)
+                .build();
+
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(existingCourse));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> courseService.updateCourse(1L, updateDto));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatusCode());
+        assertEquals("Old Title", existingCourse.getTitle());
+        verify(courseRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void getAllCourses_shouldHandleNullInstructor() {
         Course courseWithoutInstructor = Course.builder()
@@ -265,7 +325,25 @@ class CourseServiceTest {
 
         when(courseRepository.findAll()).thenReturn(List.of(courseWithoutInstructor));
 
-        assertThrows(NullPointerException.class, () -> courseService.getAllCourses());
+        List<CourseDto> result = courseService.getAllCourses();
+
+        assertEquals(1, result.size());
+        assertNull(result.get(0).getInstructorId());
+        assertNull(result.get(0).getInstructor());
+    }
+
+    @Test
+    void getAllCourses_shouldNotUseBatchLoader_whenInstructorsAlreadyLoaded() {
+        User instructor = User.builder().id(11L).username("alice").build();
+        Course course1 = Course.builder().id(1L).title("Java 101").instructor(instructor).build();
+        Course course2 = Course.builder().id(2L).title("Java 102").instructor(instructor).build();
+
+        when(courseRepository.findAll()).thenReturn(List.of(course1, course2));
+
+        List<CourseDto> result = courseService.getAllCourses();
+
+        assertEquals("alice", result.get(1).getInstructor().getUsername());
+        verifyNoInteractions(batchLoader);
     }
 
     @Test
@@ -308,4 +386,209 @@ class CourseServiceTest {
         assertEquals("Smith", result.getInstructor().getLastName());
         assertEquals("jane@example.com", result.getInstructor().getEmail());
     }
+
+    @Test
+    void getCoursesByIds_shouldKeepRequestOrder_andReportMissingIds() {
+        User instructor = User.builder().id(5L).username("instructor").build();
+        Course first = Course.builder().id(1L).title("First").instructor(instructor).build();
+        Course third = Course.builder().id(3L).title("Third").instructor(null).build();
+
+        when(courseRepository.findAllWithInstructorByIdIn(any()))
+                .thenReturn(List.of(first, third));
+
+        CourseBatchDto result = courseService.getCoursesByIds(List.of(3L, 2L, 1L, 3L));
+
+        assertEquals(List.of(3L, 1L),
+                result.getCourses().stream().map(CourseDto::getId).toList());
+        assertNull(result.getCourses().get(0).getInstructor());
+        assertEquals("instructor", result.getCourses().get(1).getInstructor().getUsername());
+        assertEquals(List.of(2L), result.getMissingIds());
+        verify(courseRepository, times(1)).findAllWithInstructorByIdIn(any());
+        verify(courseRepository, never()).findById(any());
+    }
+
+    @Test
+    void getCoursesByIds_shouldRejectOversizedBatch() {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, CourseService.MAX_BATCH_SIZE + 1)
+                .boxed()
+                .toList();
+
+        assertThrows(ResponseStatusException.class, () -> courseService.getCoursesByIds(ids));
+        verifyNoInteractions(courseRepository);
+    }
+
+    @Test
+    void deleteCourse_shouldRemoveEnrollmentsAndPublishEvent() {
+        Course course = Course.builder().id(5L).title("Java 101").build();
+        when(courseRepository.findById(5L)).thenReturn(Optional.of(course));
+
+        courseService.deleteCourse(5L);
+
+        InOrder order = inOrder(courseRepository);
+        order.verify(courseRepository).deleteEnrollmentsByCourseId(5L);
+        order.verify(courseRepository).delete(course);
+        verify(eventPublisher).publishEvent(
+                new CourseChangedEvent(CourseChangeType.DELETED, 5L));
+    }
+
+    @Test
+    void deleteCourse_shouldThrowNotFound_whenCourseMissing() {
+        when(courseRepository.findById(5L)).thenReturn(Optional.empty());
+
+        assertThrows(ResponseStatusException.class, () -> courseService.deleteCourse(5L));
+        verify(courseRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateCourse_shouldStampNextCatalogVersion() {
+        Course existingCourse = Course.builder().id(1L).title("Old Title").changeVersion(3L).build();
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(existingCourse));
+        when(catalogVersionRepository.findByIdForUpdate(CatalogVersion.CATALOG))
+                .thenReturn(Optional.of(new CatalogVersion(CatalogVersion.CATALOG, 9L)));
+
+        courseService.updateCourse(1L, CourseDto.builder().title("New Title").durationMinutes(60)
+                .build());
+
+        assertEquals(10L, existingCourse.getChangeVersion());
+        ArgumentCaptor<CatalogVersion> counter = ArgumentCaptor.forClass(CatalogVersion.class);
+        verify(catalogVersionRepository).save(counter.capture());
+        assertEquals(10L, counter.getValue().getVersion());
+    }
+
+    @Test
+    void onUserChanged_shouldRestampInstructorsCourses_withNextCatalogVersion() {
+        when(courseRepository.existsByInstructorId(2L)).thenReturn(true);
+        when(catalogVersionRepository.findByIdForUpdate(CatalogVersion.CATALOG))
+                .thenReturn(Optional.of(new CatalogVersion(CatalogVersion.CATALOG, 9L)));
+
+        courseService.onUserChanged(new UserChangedEvent(2L));
+
+        verify(courseRepository).stampChangeVersionByInstructorId(2L, 10L);
+    }
+
+    @Test
+    void onUserChanged_shouldLeaveCatalogVersionAlone_forUsersWithoutCourses() {
+        when(courseRepository.existsByInstructorId(3L)).thenReturn(false);
+
+        courseService.onUserChanged(new UserChangedEvent(3L));
+
+        verify(courseRepository, never()).stampChangeVersionByInstructorId(any(), anyLong());
+        verifyNoInteractions(catalogVersionRepository);
+    }
+
+    @Test
+    void deleteCourse_shouldLeaveTombstoneWithNextVersion() {
+        Course course = Course.builder().id(5L).enrolledUsers(new HashSet<>()).build();
+        when(courseRepository.findById(5L)).thenReturn(Optional.of(course));
+
+        courseService.deleteCourse(5L);
+
+        ArgumentCaptor<CourseTombstone> tombstone = ArgumentCaptor.forClass(CourseTombstone.class);
+        verify(tombstoneRepository).save(tombstone.capture());
+        assertEquals(5L, tombstone.getValue().getCourseId());
+        assertEquals(1L, tombstone.getValue().getVersion());
+    }
+
+    @Test
+    void getChangesSince_shouldReturnOnlyChangedCoursesAndTombstones() {
+        Course changed = Course.builder().id(2L).title("Changed").changeVersion(12L).build();
+        when(catalogVersionRepository.findVersionById(CatalogVersion.CATALOG))
+                .thenReturn(Optional.of(12L));
+        when(courseRepository.findChangedSince(10L)).thenReturn(List.of(changed));
+        when(tombstoneRepository.findCourseIdsDeletedSince(10L)).thenReturn(List.of(4L));
+
+        CourseDeltaDto delta = courseService.getChangesSince(10L);
+
+        assertEquals(1, delta.getCourses().size());
+        assertEquals("Changed", delta.getCourses().get(0).getTitle());
+        assertEquals(List.of(4L), delta.getDeletedIds());
+        assertEquals(12L, delta.getVersion());
+        verify(courseRepository, never()).findAll();
+    }
+
+    @Test
+    void getChangesSince_shouldReturnWholeCatalog_whenSinceIsZero() {
+        when(courseRepository.findAll()).thenReturn(List.of(Course.builder().id(1L).build()));
+
+        CourseDeltaDto delta = courseService.getChangesSince(0L);
+
+        assertEquals(1, delta.getCourses().size());
+        assertTrue(delta.getDeletedIds().isEmpty());
+        assertEquals(0L, delta.getVersion());
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void getChangesSince_shouldRejectNegativeVersion() {
+        assertThrows(ResponseStatusException.class, () -> courseService.getChangesSince(-1L));
+    }
+
+    private static CourseDto bulkItem(String title, Long instructorId) {
+        return CourseDto.builder()
+                .title(title)
+                .description("Imported session")
+                .category("Programming")
+                .startTime(LocalDateTime.of(2025, 9, 1, 18, 0))
+                .durationMinutes(60)
+                .instructorId(instructorId)
+                .build();
+    }
+
+    @Test
+    void createCourses_shouldResolveInstructorsOnceAndSaveAllTogether() {
+        User alice = User.builder().id(1L).username("alice").build();
+        User bob = User.builder().id(2L).username("bob").build();
+        when(userRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(alice, bob));
+        doAnswer(invocation -> {
+            long id = 100;
+            for (Course course : invocation.<List<Course>>getArgument(0)) {
+                course.setId(id++);
+            }
+            return null;
+        }).when(courseRepository).saveAll(anyList());
+
+        CourseBulkResultDto result = courseService.createCourses(List.of(
+                bulkItem("Week 1", 1L), bulkItem("Week 2", 2L), bulkItem("Week 3", 1L)));
+
+        assertEquals(List.of(100L, 101L, 102L), result.getCreatedIds());
+        assertTrue(result.getErrors().isEmpty());
+        ArgumentCaptor<List<Course>> saved = ArgumentCaptor.forClass(List.class);
+        verify(courseRepository).saveAll(saved.capture());
+        assertSame(bob, saved.getValue().get(1).getInstructor());
+        assertEquals(1L, saved.getValue().get(2).getChangeVersion());
+        verify(userRepository, times(1)).findAllById(any());
+        verify(userRepository, never()).findById(any());
+        verify(catalogVersionRepository, times(1)).findByIdForUpdate(CatalogVersion.CATALOG);
+        verify(eventPublisher).publishEvent(new CourseChangedEvent(CourseChangeType.CREATED,
+                List.of(100L, 101L, 102L)));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void createCourses_shouldReportEveryInvalidItemAndSaveNothing() {
+        when(userRepository.findAllById(Set.of(1L, 9L)))
+                .thenReturn(List.of(User.builder().id(1L).build()));
+        CourseDto untitled = bulkItem(" ", 1L);
+
+        CourseBulkResultDto result = courseService.createCourses(Arrays.asList(
+                bulkItem("Fine", 1L), untitled, bulkItem("Orphan", 9L), null));
+
+        assertTrue(result.getCreatedIds().isEmpty());
+        assertEquals(List.of(
+                new BulkItemErrorDto(1, "title", "Title is required"),
+                new BulkItemErrorDto(2, "instructorId", "Instructor not found"),
+                new BulkItemErrorDto(3, null, "Course is required")), result.getErrors());
+        verify(courseRepository, never()).saveAll(any());
+        verifyNoInteractions(catalogVersionRepository, eventPublisher);
+    }
+
+    @Test
+    void createCourses_shouldRejectOversizedBatch() {
+        List<CourseDto> tooMany = Collections.nCopies(CourseService.MAX_BULK_SIZE + 1,
+                bulkItem("Copy", 1L));
+
+        assertThrows(ResponseStatusException.class, () -> courseService.createCourses(tooMany));
+        verifyNoInteractions(userRepository);
+    }
 }
@@ -0,0 +1,134 @@
+package com.skillbook.platform.service;
+
+import com.skillbook.platform.dto.InstructorDto;
+import com.skillbook.platform.event.UserChangedEvent;
+import com.skillbook.platform.model.Course;
+import com.skillbook.platform.repository.CourseRepository;
+import com.skillbook.platform.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DtoBatchLoaderTest {
+
+    @InjectMocks
+    private DtoBatchLoader batchLoader;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void loadInstructors_shouldIssueSingleQueryForAllIds() {
+        InstructorDto alice = InstructorDto.builder().id(1L).username("alice").build();
+        InstructorDto bob = InstructorDto.builder().id(2L).username("bob").build();
+        when(userRepository.findInstructorsByIdIn(Set.of(1L, 2L))).thenReturn(List.of(alice, bob));
+
+        Map<Long, InstructorDto> result = batchLoader.loadInstructors(List.of(1L, 2L, 1L));
+
+        assertEquals(2, result.size());
+        assertEquals("bob", result.get(2L).getUsername());
+        verify(userRepository, times(1)).findInstructorsByIdIn(any());
+    }
+
+    @Test
+    void loadInstructors_shouldReuseResultsWithinRequest() {
+        InstructorDto alice = InstructorDto.builder().id(1L).username("alice").build();
+        InstructorDto bob = InstructorDto.builder().id(2L).username("bob").build();
+        when(userRepository.findInstructorsByIdIn(Set.of(1L))).thenReturn(List.of(alice));
+        when(userRepository.findInstructorsByIdIn(Set.of(2L))).thenReturn(List.of(bob));
+
+        batchLoader.loadInstructors(List.of(1L));
+        Map<Long, InstructorDto> result = batchLoader.loadInstructors(List.of(1L, 2L));
+
+        assertEquals(2, result.size());
+        verify(userRepository).findInstructorsByIdIn(Set.of(1L));
+        verify(userRepository).findInstructorsByIdIn(Set.of(2L));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void loadCourses_shouldOmitMissingIds() {
+        Course course = Course.builder().id(10L).title("Java 101").build();
+        when(courseRepository.findAllById(Set.of(10L, 99L))).thenReturn(List.of(course));
+
+        Map<Long, Course> result = batchLoader.loadCourses(List.of(10L, 99L));
+
+        assertEquals(Map.of(10L, course), result);
+    }
+
+    @Test
+    void loadCourses_shouldNotCacheOutsideRequest() {
+        RequestContextHolder.resetRequestAttributes();
+        Course course = Course.builder().id(10L).title("Java 101").build();
+        when(courseRepository.findAllById(Set.of(10L))).thenReturn(List.of(course));
+
+        batchLoader.loadCourses(List.of(10L));
+        batchLoader.loadCourses(List.of(10L));
+
+        verify(courseRepository, times(2)).findAllById(Set.of(10L));
+    }
+
+    @Test
+    void loadInstructors_shouldRememberMissingIdsWithinRequest() {
+        when(userRepository.findInstructorsByIdIn(Set.of(99L))).thenReturn(List.of());
+
+        assertTrue(batchLoader.loadInstructors(List.of(99L)).isEmpty());
+        assertTrue(batchLoader.loadInstructors(List.of(99L)).isEmpty());
+
+        verify(userRepository, times(1)).findInstructorsByIdIn(any());
+    }
+
+    @Test
+    void onUserChanged_shouldReloadThatInstructorOnly() {
+        InstructorDto alice = InstructorDto.builder().id(1L).firstName("Alice").build();
+        InstructorDto renamed = InstructorDto.builder().id(1L).firstName("Alicia").build();
+        InstructorDto bob = InstructorDto.builder().id(2L).firstName("Bob").build();
+        when(userRepository.findInstructorsByIdIn(Set.of(1L, 2L))).thenReturn(List.of(alice, bob));
+        when(userRepository.findInstructorsByIdIn(Set.of(1L))).thenReturn(List.of(renamed));
+
+        batchLoader.loadInstructors(List.of(1L, 2L));
+        batchLoader.onUserChanged(new UserChangedEvent(1L));
+        Map<Long, InstructorDto> result = batchLoader.loadInstructors(List.of(1L, 2L));
+
+        assertEquals("Alicia", result.get(1L).getFirstName());
+        assertEquals("Bob", result.get(2L).getFirstName());
+        verify(userRepository).findInstructorsByIdIn(Set.of(1L));
+    }
+
+    @Test
+    void loadCourses_shouldQueryCurrentSessionEveryTime_evenWithinRequest() {
+        Course course = Course.builder().id(10L).title("Java 101").build();
+        when(courseRepository.findAllById(Set.of(10L))).thenReturn(List.of(course));
+
+        batchLoader.loadCourses(List.of(10L));
+        batchLoader.loadCourses(List.of(10L, 10L));
+
+        verify(courseRepository, times(2)).findAllById(Set.of(10L));
+    }
+}
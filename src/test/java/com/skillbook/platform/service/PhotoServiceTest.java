@@ -0,0 +1,75 @@
+package com.skillbook.platform.service;
+
+import com.skillbook.platform.storage.PhotoStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhotoServiceTest {
+
+    private static final byte[] PNG_HEADER =
+            {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    @TempDir
+    Path root;
+
+    private PhotoStore photoStore;
+
+    private PhotoService photoService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        photoStore = new PhotoStore(root.toString());
+        photoService = new PhotoService(photoStore, DataSize.ofKilobytes(1));
+    }
+
+    @Test
+    void storeUpload_shouldStorePhoto_whenTypeAndContentMatch() {
+        byte[] content = Arrays.copyOf(PNG_HEADER, 100);
+        MockMultipartFile photo = new MockMultipartFile("photo", "me.png", "image/png", content);
+
+        PhotoStore.StoredBlob blob = photoService.storeUpload(photo);
+
+        assertEquals(100, blob.size());
+        assertTrue(photoStore.exists(blob.hash()));
+    }
+
+    @Test
+    void storeUpload_shouldReject_whenDeclaredTypeUnsupported() {
+        MockMultipartFile photo = new MockMultipartFile("photo", "me.svg", "image/svg+xml",
+                "<svg/>".getBytes());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> photoService.storeUpload(photo));
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getStatusCode());
+    }
+
+    @Test
+    void storeUpload_shouldReject_whenContentDoesNotMatchDeclaredType() {
+        MockMultipartFile photo = new MockMultipartFile("photo", "me.png", "image/png",
+                "not really a png".getBytes());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> photoService.storeUpload(photo));
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getStatusCode());
+    }
+
+    @Test
+    void storeUpload_shouldReject_whenTooLarge() {
+        byte[] content = Arrays.copyOf(PNG_HEADER, 4096);
+        MockMultipartFile photo = new MockMultipartFile("photo", "me.png", "image/png", content);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> photoService.storeUpload(photo));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatusCode());
+    }
+}
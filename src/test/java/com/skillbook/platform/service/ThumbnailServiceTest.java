@@ -0,0 +1,88 @@
+package com.skillbook.platform.service;
+
+import com.skillbook.platform.storage.PhotoStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThumbnailServiceTest {
+
+    @TempDir
+    Path root;
+
+    private PhotoStore photoStore;
+
+    private ThumbnailService thumbnailService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        photoStore = new PhotoStore(root.toString());
+        thumbnailService = new ThumbnailService(photoStore, List.of(32, 128, 64));
+    }
+
+    private String storePng(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return photoStore.store(new ByteArrayInputStream(out.toByteArray())).hash();
+    }
+
+    @Test
+    void generateVariants_shouldWriteSquareJpegForEachSize() throws Exception {
+        String hash = storePng(800, 600);
+
+        thumbnailService.generateVariants(hash);
+
+        for (int size : List.of(128, 64, 32)) {
+            Path variant = photoStore.resolveVariant(hash, size);
+            assertTrue(Files.isRegularFile(variant));
+            BufferedImage image = ImageIO.read(variant.toFile());
+            assertEquals(size, image.getWidth());
+            assertEquals(size, image.getHeight());
+        }
+    }
+
+    @Test
+    void selectVariant_shouldPickSmallestCoveringVariant() throws Exception {
+        String hash = storePng(400, 400);
+        thumbnailService.generateVariants(hash);
+
+        assertEquals(32, thumbnailService.selectVariant(hash, 20));
+        assertEquals(64, thumbnailService.selectVariant(hash, 48));
+        assertEquals(128, thumbnailService.selectVariant(hash, 128));
+        assertNull(thumbnailService.selectVariant(hash, 512));
+    }
+
+    @Test
+    void selectVariant_shouldFallBackToOriginal_beforeVariantsExist() throws Exception {
+        String hash = storePng(400, 400);
+
+        assertNull(thumbnailService.selectVariant(hash, 64));
+    }
+
+    @Test
+    void hasVariantFor_shouldBeFalse_aboveTheLargestVariant() {
+        assertTrue(thumbnailService.hasVariantFor(128));
+        assertFalse(thumbnailService.hasVariantFor(129));
+    }
+
+    @Test
+    void generateVariants_shouldIgnoreUndecodableContent() throws Exception {
+        String hash = photoStore.store(new ByteArrayInputStream("not an image".getBytes()))
+                .hash();
+
+        thumbnailService.generateVariants(hash);
+
+        assertFalse(Files.exists(photoStore.resolveVariant(hash, 32)));
+    }
+}
@@ -0,0 +1,192 @@
+package com.skillbook.platform.service;
+
+import com.skillbook.platform.dto.UserImportStatusDto;
+import com.skillbook.platform.enums.ImportStatus;
+import com.skillbook.platform.enums.Role;
+import com.skillbook.platform.event.UsersCreatedEvent;
+import com.skillbook.platform.model.User;
+import com.skillbook.platform.repository.UserRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceTest {
+
+    private static final String HEADER = "username,email,password,first_name,last_name,role\n";
+
+    @TempDir
+    Path workDir;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+
+    private final ApplicationEventPublisher eventPublisher =
+            mock(ApplicationEventPublisher.class);
+
+    private final ExecutorService hashExecutor = Executors.newFixedThreadPool(2);
+
+    private UserImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordEncoder.encode(anyString()))
+                .thenAnswer(invocation -> "hashed:" + invocation.getArgument(0));
+        importService = new UserImportService(userRepository, passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                mock(PlatformTransactionManager.class), eventPublisher, new SyncTaskExecutor(),
+                hashExecutor, workDir, 2, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashExecutor.shutdownNow();
+    }
+
+    private UserImportStatusDto runImport(String csv) throws Exception {
+        // the sync executor runs the whole import inside submit
+        String jobId = importService.submit(new ByteArrayInputStream(
+                csv.getBytes(StandardCharsets.UTF_8))).getJobId();
+        return importService.getStatus(jobId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_shouldImportValidRowsAndListRejectedOnes() throws Exception {
+        when(userRepository.findExistingUsernames(any())).thenReturn(List.of("bob"));
+
+        UserImportStatusDto status = runImport(HEADER
+                + "alice,alice@example.com,secret1,Alice,\"Smith, Jr.\",\n"
+                + "bob,bob@example.com,secret2,Bob,Jones,LEARNER\n"
+                + "carol,not-an-email,secret3,Carol,King,INSTRUCTOR\n"
+                + "dave,dave@example.com,secret4,Dave,Ray,TEACHER\n");
+
+        assertEquals(ImportStatus.COMPLETED, status.getStatus());
+        assertEquals(4, status.getProcessedRows());
+        assertEquals(1, status.getImportedRows());
+        assertEquals(3, status.getFailedRows());
+
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).saveAll(saved.capture());
+        User alice = saved.getValue().get(0);
+        assertEquals("alice", alice.getUsername());
+        assertEquals("hashed:secret1", alice.getPassword());
+        assertEquals("Smith, Jr.", alice.getLastName());
+        assertEquals(Role.LEARNER, alice.getRole());
+        // other nodes may have cached alice's username as not found
+        verify(eventPublisher).publishEvent(new UsersCreatedEvent(List.of("alice")));
+        verifyNoMoreInteractions(eventPublisher);
+
+        Path errors = importService.getErrorFile(status.getJobId());
+        assertEquals(List.of(
+                "line,username,error",
+                "3,bob,Username already exists",
+                "4,carol,Email should be valid",
+                "5,,Unknown role: TEACHER"), Files.readAllLines(errors));
+        // the spooled upload is removed once processed
+        assertFalse(Files.exists(workDir.resolve(status.getJobId() + ".csv")));
+    }
+
+    @Test
+    void submit_shouldRejectDuplicateUsernamesWithinTheFile() throws Exception {
+        UserImportStatusDto status = runImport(HEADER
+                + "erin,erin@example.com,secret,,,\n"
+                + "erin,erin2@example.com,secret,,,\n");
+
+        assertEquals(1, status.getImportedRows());
+        assertTrue(Files.readString(importService.getErrorFile(status.getJobId()))
+                .contains("3,erin,Duplicate username in file"));
+    }
+
+    @Test
+    void submit_shouldFailOnUnexpectedHeader() throws Exception {
+        UserImportStatusDto status = runImport("name,mail\nalice,alice@example.com\n");
+
+        assertEquals(ImportStatus.FAILED, status.getStatus());
+        assertTrue(status.getFailure().startsWith("Expected header"));
+        verify(userRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void submit_shouldSaveRowByRow_whenTheBatchHitsAConstraint() throws Exception {
+        when(userRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("dup"));
+        // bob was registered between the chunk's lookup and its insert
+        when(userRepository.saveAndFlush(argThat((User user) ->
+                "bob".equals(user.getUsername()))))
+                .thenThrow(new DataIntegrityViolationException("dup"));
+        when(userRepository.findExistingUsernames(Set.of("bob"))).thenReturn(List.of("bob"));
+
+        UserImportStatusDto status = runImport(HEADER
+                + "alice,alice@example.com,secret1,,,\n"
+                + "bob,bob@example.com,secret2,,,\n");
+
+        assertEquals(ImportStatus.COMPLETED, status.getStatus());
+        assertEquals(1, status.getImportedRows());
+        assertEquals(1, status.getFailedRows());
+        verify(userRepository).saveAndFlush(argThat((User user) ->
+                "alice".equals(user.getUsername())
+                        && "hashed:secret1".equals(user.getPassword())));
+        verify(eventPublisher).publishEvent(new UsersCreatedEvent(List.of("alice")));
+        verifyNoMoreInteractions(eventPublisher);
+        assertEquals(List.of(
+                "line,username,error",
+                "3,bob,Username already exists"),
+                Files.readAllLines(importService.getErrorFile(status.getJobId())));
+    }
+
+    @Test
+    void purgeFinishedBefore_shouldDropExpiredJobsAndTheirFiles() throws Exception {
+        UserImportStatusDto status = runImport(HEADER + "erin,erin@example.com,secret,,,\n");
+        Path errors = importService.getErrorFile(status.getJobId());
+        // left behind by an earlier run of the application
+        Path orphan = Files.writeString(workDir.resolve("stale-errors.csv"), "line\n");
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        importService.purgeFinishedBefore(Instant.now().minus(Duration.ofMinutes(1)));
+        assertEquals(status.getJobId(), importService.getStatus(status.getJobId()).getJobId());
+        assertTrue(Files.exists(errors));
+        assertFalse(Files.exists(orphan));
+
+        importService.purgeFinishedBefore(Instant.now().plusSeconds(1));
+        assertThrows(ResponseStatusException.class,
+                () -> importService.getStatus(status.getJobId()));
+        assertFalse(Files.exists(errors));
+    }
+
+    @Test
+    void getStatus_shouldThrow_whenJobIsUnknown() {
+        assertThrows(ResponseStatusException.class, () -> importService.getStatus("missing"));
+    }
+
+    @Test
+    void parseCsvLine_shouldHandleQuotedFields() {
+        assertArrayEquals(new String[] {"Doe, Jr.", "", "say \"hi\""},
+                UserImportService.parseCsvLine("\"Doe, Jr.\",,\"say \"\"hi\"\"\""));
+        assertThrows(IllegalArgumentException.class,
+                () -> UserImportService.parseCsvLine("\"unterminated,x"));
+    }
+}
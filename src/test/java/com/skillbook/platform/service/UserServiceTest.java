@@ -1,17 +1,37 @@
 package com.skillbook.platform.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.skillbook.platform.dto.CourseDto;
+import com.skillbook.platform.dto.CursorPageDto;
 import com.skillbook.platform.dto.UserDto;
+import com.skillbook.platform.dto.UserProfileDto;
 import com.skillbook.platform.model.Course;
 import com.skillbook.platform.model.User;
 import com.skillbook.platform.enums.Role;
+import com.skillbook.platform.enums.CourseChangeType;
+import com.skillbook.platform.event.CourseChangedEvent;
+import com.skillbook.platform.event.UserChangedEvent;
+import com.skillbook.platform.event.UsersCreatedEvent;
 import com.skillbook.platform.repository.CourseRepository;
 import com.skillbook.platform.repository.UserRepository;
+import com.skillbook.platform.repository.projection.EnrolledCourseRow;
+import com.skillbook.platform.repository.projection.UserProfileRow;
+import com.skillbook.platform.storage.PhotoStore;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
@@ -33,6 +53,18 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private DtoBatchLoader batchLoader;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
 
     @BeforeEach
     void setUp() {
@@ -83,12 +115,13 @@ class UserServiceTest {
                 .enrolledCourses(new HashSet<>())
                 .build();
 
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(userRepository.findWithEnrolledCoursesByUsername("john"))
+                .thenReturn(Optional.of(user));
 
         UserDto result = userService.findByUsername("john");
 
         assertEquals("john", result.getUsername());
-        verify(userRepository).findByUsername("john");
+        verify(userRepository).findWithEnrolledCoursesByUsername("john");
     }
 
     @Test
@@ -116,16 +149,17 @@ class UserServiceTest {
                 .firstName("John")
                 .lastName("Doe")
                 .role(Role.LEARNER)
-                .profilePhoto("photo".getBytes())
+                .profilePhotoHash("a".repeat(64))
                 .enrolledCourses(enrolledCourses)
                 .build();
 
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(userRepository.findWithEnrolledCoursesByUsername("john"))
+                .thenReturn(Optional.of(user));
 
         UserDto result = userService.findByUsername("john");
 
         assertEquals("john", result.getUsername());
-        assertArrayEquals("photo".getBytes(), result.getProfilePhoto());
+        assertEquals("/photos/" + "a".repeat(64), result.getProfilePhotoUrl());
         assertEquals(1, result.getEnrolledCourses().size());
         CourseDto courseDto = result.getEnrolledCourses().get(0);
         assertEquals(100L, courseDto.getId());
@@ -155,7 +189,8 @@ class UserServiceTest {
                 .enrolledCourses(enrolledCourses)
                 .build();
 
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
+        when(userRepository.findWithEnrolledCoursesByUsername("john"))
+                .thenReturn(Optional.of(user));
 
         UserDto result = userService.findByUsername("john");
 
@@ -167,11 +202,293 @@ class UserServiceTest {
 
     @Test
     void findByUsername_shouldThrowException_whenUserNotFound() {
-        when(userRepository.findByUsername("missing")).thenReturn(Optional.empty());
+        when(userRepository.findWithEnrolledCoursesByUsername("missing"))
+                .thenReturn(Optional.empty());
 
         assertThrows(ResponseStatusException.class, () -> userService.findByUsername("missing"));
     }
 
+    @Test
+    void getProfile_shouldMapProjection_withoutLoadingEntity() {
+        when(userRepository.findProfileByUsername("john")).thenReturn(Optional.of(
+                new UserProfileRow(1L, "john", "john@example.com", "John", "Doe",
+                        Role.LEARNER, "b".repeat(64), 3L, 0L)));
+
+        UserProfileDto result = userService.getProfile("john");
+
+        assertEquals("john", result.getUsername());
+        assertEquals("/photos/" + "b".repeat(64), result.getProfilePhotoUrl());
+        assertEquals(3L, result.getEnrolledCourseCount());
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void getProfile_shouldOmitPhotoUrl_whenNoPhoto() {
+        when(userRepository.findProfileByUsername("john")).thenReturn(Optional.of(
+                new UserProfileRow(1L, "john", "john@example.com", null, null,
+                        Role.LEARNER, null, 0L, 0L)));
+
+        assertNull(userService.getProfile("john").getProfilePhotoUrl());
+    }
+
+    @Test
+    void getProfile_shouldThrowException_whenUserNotFound() {
+        when(userRepository.findProfileByUsername("missing")).thenReturn(Optional.empty());
+
+        assertThrows(ResponseStatusException.class, () -> userService.getProfile("missing"));
+    }
+
+    @Test
+    void getEnrolledCourses_shouldReturnNextCursor_whenMoreRowsExist() {
+        EnrolledCourseRow first = new EnrolledCourseRow(10L, "Java 101", "Basics", "Programming",
+                null, 60, 2L, "Jane", "Smith");
+        EnrolledCourseRow second = new EnrolledCourseRow(11L, "Self-paced", "No instructor",
+                "Programming", null, 30, null, null, null);
+        when(courseRepository.findEnrolledCourseRows(eq("john"), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+
+        CursorPageDto<CourseDto> page = userService.getEnrolledCourses("john", null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("Java 101", page.getItems().get(0).getTitle());
+        assertEquals("Jane", page.getItems().get(0).getInstructor().getFirstName());
+        assertEquals(10L, page.getNextCursor());
+    }
+
+    @Test
+    void getEnrolledCourses_shouldReturnNullCursor_onLastPage() {
+        EnrolledCourseRow row = new EnrolledCourseRow(11L, "Self-paced", "No instructor",
+                "Programming", null, 30, null, null, null);
+        when(courseRepository.findEnrolledCourseRows(eq("john"), eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(row));
+
+        CursorPageDto<CourseDto> page = userService.getEnrolledCourses("john", 10L, 20);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getItems().get(0).getInstructor());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getEnrolledCourses_shouldUseDefaultSize_whenLimitOmitted_andClampLargeLimits() {
+        when(courseRepository.findEnrolledCourseRows(eq("john"), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        userService.getEnrolledCourses("john", null, null);
+        userService.getEnrolledCourses("john", null, 10_000);
+
+        // one extra row is always requested to detect a next page
+        verify(courseRepository).findEnrolledCourseRows("john", 0L,
+                PageRequest.ofSize(UserService.DEFAULT_PAGE_SIZE + 1));
+        verify(courseRepository).findEnrolledCourseRows("john", 0L,
+                PageRequest.ofSize(UserService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void patchUser_shouldOnlyTouchFieldsPresentInPatch() throws Exception {
+        User existing = User.builder()
+                .id(1L)
+                .username("john")
+                .email("john@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .password("hashed")
+                .profilePhotoHash("a".repeat(64))
+                .enrolledCourses(new HashSet<>())
+                .build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+        when(userRepository.findProfileByUsername("john")).thenReturn(Optional.of(
+                new UserProfileRow(1L, "john", "john@example.com", "Johnny", null,
+                        Role.LEARNER, "a".repeat(64), 0L, 1L)));
+
+        UserProfileDto result = userService.patchUser("john",
+                new ObjectMapper().readTree("{\"firstName\":\"Johnny\",\"lastName\":null}"), null);
+
+        assertEquals("Johnny", existing.getFirstName());
+        assertNull(existing.getLastName());
+        assertEquals("john@example.com", existing.getEmail());
+        assertEquals("hashed", existing.getPassword());
+        assertEquals("a".repeat(64), existing.getProfilePhotoHash());
+        assertEquals("Johnny", result.getFirstName());
+        verify(userRepository, never()).save(any());
+        verifyNoInteractions(courseRepository);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(1L));
+    }
+
+    @Test
+    void patchUser_shouldEncodePassword() throws Exception {
+        User existing = User.builder().id(1L).username("john").password("old").build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+        when(userRepository.findProfileByUsername("john")).thenReturn(Optional.of(
+                new UserProfileRow(1L, "john", null, null, null, Role.LEARNER, null, 0L, 1L)));
+        when(passwordEncoder.encode("secret")).thenReturn("encoded");
+
+        userService.patchUser("john", new ObjectMapper().readTree("{\"password\":\"secret\"}"),
+                null);
+
+        assertEquals("encoded", existing.getPassword());
+    }
+
+    @Test
+    void patchUser_shouldRejectReadOnlyFields() throws Exception {
+        User existing = User.builder().id(1L).username("john").role(Role.LEARNER).build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+
+        assertThrows(ResponseStatusException.class, () -> userService.patchUser("john",
+                new ObjectMapper().readTree("{\"role\":\"ADMIN\"}"), null));
+        assertEquals(Role.LEARNER, existing.getRole());
+    }
+
+    @Test
+    void patchUser_shouldRejectClearingEmail() throws Exception {
+        User existing = User.builder().id(1L).username("john").email("john@example.com").build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+
+        assertThrows(ResponseStatusException.class, () -> userService.patchUser("john",
+                new ObjectMapper().readTree("{\"email\":null}"), null));
+    }
+
+    @Test
+    void patchUser_shouldRejectNonStringValues() throws Exception {
+        User existing = User.builder().id(1L).username("john").firstName("John").build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+
+        for (String patch : List.of("{\"firstName\":42}", "{\"firstName\":{\"a\":1}}",
+                "{\"lastName\":[\"Doe\"]}")) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> userService.patchUser("john", new ObjectMapper().readTree(patch), null));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+        assertEquals("John", existing.getFirstName());
+    }
+
+    @Test
+    void patchUser_shouldRejectMalformedEmail() throws Exception {
+        User existing = User.builder().id(1L).username("john").email("john@example.com").build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> userService.patchUser("john",
+                        new ObjectMapper().readTree("{\"email\":\"not-an-email\"}"), null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        assertEquals("john@example.com", existing.getEmail());
+    }
+
+    @Test
+    void patchUser_shouldNotPublish_whenNothingChanged() throws Exception {
+        User existing = User.builder().id(1L).username("john").firstName("John").build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+        when(userRepository.findProfileByUsername("john")).thenReturn(Optional.of(
+                new UserProfileRow(1L, "john", null, "John", null, Role.LEARNER, null, 0L, 0L)));
+
+        userService.patchUser("john", new ObjectMapper().readTree("{\"firstName\":\"John\"}"),
+                null);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateProfile_shouldApplyFormAndPhoto_andPublishUserChanged() {
+        User existing = User.builder().id(1L).username("john").email("john@example.com")
+                .firstName("John").build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+        when(userRepository.findProfileByUsername("john")).thenReturn(Optional.of(
+                new UserProfileRow(1L, "john", "jd@example.com", "Johnny", "Doe",
+                        Role.LEARNER, "c".repeat(64), 0L, 1L)));
+        UserDto form = UserDto.builder().firstName("Johnny").lastName("Doe")
+                .email("jd@example.com").build();
+
+        userService.updateProfile("john", form, new PhotoStore.StoredBlob("c".repeat(64), 10L),
+                "image/png");
+
+        assertEquals("Johnny", existing.getFirstName());
+        assertEquals("jd@example.com", existing.getEmail());
+        assertEquals("c".repeat(64), existing.getProfilePhotoHash());
+        assertEquals("image/png", existing.getProfilePhotoContentType());
+        verify(eventPublisher).publishEvent(new UserChangedEvent(1L));
+    }
+
+    @Test
+    void updateProfile_shouldNotPublish_whenFormChangesNothing() {
+        User existing = User.builder().id(1L).username("john").email("john@example.com")
+                .firstName("John").lastName("Doe").build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+        when(userRepository.findProfileByUsername("john")).thenReturn(Optional.of(
+                new UserProfileRow(1L, "john", "john@example.com", "John", "Doe",
+                        Role.LEARNER, null, 0L, 0L)));
+        UserDto form = UserDto.builder().firstName("John").lastName("Doe")
+                .email("john@example.com").build();
+
+        userService.updateProfile("john", form, null, null);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateProfile_shouldRejectStaleVersion() {
+        User existing = User.builder().id(1L).username("john").email("john@example.com")
+                .firstName("John").version(3L).build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+        UserDto form = UserDto.builder().firstName("Johnny").email("john@example.com")
+                .version(2L).build();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> userService.updateProfile("john", form, null, null));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatusCode());
+        assertEquals("John", existing.getFirstName());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void checkProfileVersion_shouldReject_whenTheProfileMovedOn() {
+        when(userRepository.findProfileByUsername("john")).thenReturn(Optional.of(
+                new UserProfileRow(1L, "john", "john@example.com", "John", "Doe",
+                        Role.LEARNER, null, 0L, 3L)));
+
+        userService.checkProfileVersion("john", 3L);
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> userService.checkProfileVersion("john", 2L));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatusCode());
+    }
+
+    @Test
+    void checkProfileVersion_shouldSkipTheLookup_withoutIfMatch() {
+        userService.checkProfileVersion("john", null);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void updateProfile_shouldRejectMalformedEmail() {
+        User existing = User.builder().id(1L).username("john").email("john@example.com").build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+        UserDto form = UserDto.builder().firstName("John").email("nope").build();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> userService.updateProfile("john", form, null, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void patchUser_shouldRejectStaleVersion() throws Exception {
+        User existing = User.builder().id(1L).username("john").firstName("John").version(2L)
+                .build();
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existing));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> userService.patchUser("john",
+                        new ObjectMapper().readTree("{\"firstName\":\"Johnny\"}"), 1L));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatusCode());
+        assertEquals("John", existing.getFirstName());
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void createUser_shouldSaveUser_whenValidDto() {
         UserDto dto = UserDto.builder()
@@ -192,6 +509,7 @@ class UserServiceTest {
         assertEquals("newuser", savedUser.getUsername());
         assertEquals("newuser@example.com", savedUser.getEmail());
         assertEquals("password123", savedUser.getPassword());
+        verify(eventPublisher).publishEvent(new UsersCreatedEvent(List.of("newuser")));
         assertEquals("New", savedUser.getFirstName());
         assertEquals("User", savedUser.getLastName());
         assertEquals(Role.LEARNER, savedUser.getRole());
@@ -219,13 +537,12 @@ class UserServiceTest {
                 .email("updated@example.com")
                 .password("newpass")
                 .role(Role.INSTRUCTOR)
-                .profilePhoto("pic.jpg".getBytes())
                 .enrolledCourses(List.of(courseDto))
                 .build();
 
         when(passwordEncoder.encode("newpass")).thenReturn("encodedpass");
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(courseRepository.findById(100L)).thenReturn(Optional.of(course));
+        when(userRepository.findWithEnrolledCoursesById(1L)).thenReturn(Optional.of(existing));
+        when(batchLoader.loadCourses(List.of(100L))).thenReturn(Map.of(100L, course));
 
         userService.updateUser(incoming);
 
@@ -234,7 +551,6 @@ class UserServiceTest {
         assertEquals("User", existing.getLastName());
         assertEquals("encodedpass", existing.getPassword());
         assertEquals(Role.INSTRUCTOR, existing.getRole());
-        assertArrayEquals("pic.jpg".getBytes(), existing.getProfilePhoto());
         assertTrue(existing.getEnrolledCourses().contains(course));
         verify(userRepository).save(existing);
     }
@@ -255,7 +571,7 @@ class UserServiceTest {
                 .enrolledCourses(List.of())
                 .build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userRepository.findWithEnrolledCoursesById(1L)).thenReturn(Optional.of(existing));
 
         userService.updateUser(incoming);
 
@@ -279,7 +595,7 @@ class UserServiceTest {
                 .enrolledCourses(List.of())
                 .build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userRepository.findWithEnrolledCoursesById(1L)).thenReturn(Optional.of(existing));
 
         userService.updateUser(incoming);
 
@@ -295,7 +611,7 @@ class UserServiceTest {
                 .enrolledCourses(List.of())
                 .build();
 
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.findWithEnrolledCoursesById(999L)).thenReturn(Optional.empty());
 
         assertThrows(ResponseStatusException.class, () -> userService.updateUser(dto));
         verify(userRepository, never()).save(any());
@@ -308,8 +624,8 @@ class UserServiceTest {
                 .enrolledCourses(List.of(CourseDto.builder().id(999L).build()))
                 .build();
         when(passwordEncoder.encode(any())).thenReturn("doesntmatter");
-        when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
-        when(courseRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.findWithEnrolledCoursesById(1L)).thenReturn(Optional.of(new User()));
+        when(batchLoader.loadCourses(List.of(999L))).thenReturn(Map.of());
 
         assertThrows(EntityNotFoundException.class, () -> userService.updateUser(dto));
     }
@@ -334,15 +650,21 @@ class UserServiceTest {
                 .enrolledCourses(List.of(courseDto1, courseDto2))
                 .build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(courseRepository.findById(100L)).thenReturn(Optional.of(course1));
-        when(courseRepository.findById(200L)).thenReturn(Optional.of(course2));
+        when(userRepository.findWithEnrolledCoursesById(1L)).thenReturn(Optional.of(existing));
+        when(batchLoader.loadCourses(List.of(100L, 200L)))
+                .thenReturn(Map.of(100L, course1, 200L, course2));
 
         userService.updateUser(incoming);
 
+        verify(batchLoader, times(1)).loadCourses(any());
+        verify(courseRepository, never()).findById(any());
         assertEquals(2, existing.getEnrolledCourses().size());
         assertTrue(existing.getEnrolledCourses().contains(course1));
         assertTrue(existing.getEnrolledCourses().contains(course2));
+        verify(eventPublisher).publishEvent(
+                new CourseChangedEvent(CourseChangeType.ENROLLMENT, 100L));
+        verify(eventPublisher).publishEvent(
+                new CourseChangedEvent(CourseChangeType.ENROLLMENT, 200L));
     }
 
     @Test
@@ -363,10 +685,105 @@ class UserServiceTest {
                 .enrolledCourses(List.of())
                 .build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userRepository.findWithEnrolledCoursesById(1L)).thenReturn(Optional.of(existing));
 
         userService.updateUser(incoming);
 
         assertTrue(existing.getEnrolledCourses().isEmpty());
+        verify(eventPublisher).publishEvent(
+                new CourseChangedEvent(CourseChangeType.ENROLLMENT, 100L));
+    }
+
+    @Test
+    void updateUser_shouldRejectStaleVersion() {
+        User existing = User.builder().id(1L).username("john").firstName("John").version(5L)
+                .enrolledCourses(new HashSet<>())
+                .build();
+        UserDto incoming = UserDto.builder().id(1L).firstName("Updated").version(4L).build();
+        when(userRepository.findWithEnrolledCoursesById(1L)).thenReturn(Optional.of(existing));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> userService.updateUser(incoming));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatusCode());
+        assertEquals("John", existing.getFirstName());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void enroll_shouldAddCourse_andPublishEnrollment() {
+        runTransactionsInline();
+        Course course = Course.builder().id(4L).title("Java 101").build();
+        User user = User.builder().id(1L).username("john").enrolledCourses(new HashSet<>())
+                .build();
+        when(userRepository.findWithEnrolledCoursesByUsername("john"))
+                .thenReturn(Optional.of(user));
+        when(courseRepository.findById(4L)).thenReturn(Optional.of(course));
+
+        userService.enroll("john", 4L);
+
+        assertTrue(user.getEnrolledCourses().contains(course));
+        verify(userRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(
+                new CourseChangedEvent(CourseChangeType.ENROLLMENT, 4L));
+    }
+
+    @Test
+    void enroll_shouldNotPublish_whenAlreadyEnrolled() {
+        runTransactionsInline();
+        Course course = Course.builder().id(4L).title("Java 101").build();
+        User user = User.builder().id(1L).username("john")
+                .enrolledCourses(new HashSet<>(Set.of(course)))
+                .build();
+        when(userRepository.findWithEnrolledCoursesByUsername("john"))
+                .thenReturn(Optional.of(user));
+        when(courseRepository.findById(4L)).thenReturn(Optional.of(course));
+
+        userService.enroll("john", 4L);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void enroll_shouldRetry_whenVersionConflicts() {
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L))
+                .thenReturn(null);
+
+        userService.enroll("john", 4L);
+
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void enroll_shouldGiveUp_afterMaxAttempts() {
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> userService.enroll("john", 4L));
+
+        verify(transactionTemplate, times(UserService.MAX_ENROLL_ATTEMPTS)).execute(any());
+    }
+
+    @Test
+    void enroll_shouldThrowException_whenCourseNotFound() {
+        runTransactionsInline();
+        User user = User.builder().id(1L).username("john").enrolledCourses(new HashSet<>())
+                .build();
+        when(userRepository.findWithEnrolledCoursesByUsername("john"))
+                .thenReturn(Optional.of(user));
+        when(courseRepository.findById(999L)).thenReturn(Optional.empty());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> userService.enroll("john", 999L));
+
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 }
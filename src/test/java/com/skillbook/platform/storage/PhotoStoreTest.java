@@ -0,0 +1,70 @@
+package com.skillbook.platform.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhotoStoreTest {
+
+    @TempDir
+    Path root;
+
+    private PhotoStore photoStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        photoStore = new PhotoStore(root.toString());
+    }
+
+    @Test
+    void store_shouldKeyBlobBySha256() throws Exception {
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+
+        PhotoStore.StoredBlob blob = photoStore.store(new ByteArrayInputStream(content));
+
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824",
+                blob.hash());
+        assertEquals(5, blob.size());
+        assertTrue(photoStore.exists(blob.hash()));
+        assertArrayEquals(content, Files.readAllBytes(photoStore.resolve(blob.hash())));
+    }
+
+    @Test
+    void store_shouldDeduplicateIdenticalContent() throws Exception {
+        byte[] content = "same photo".getBytes(StandardCharsets.UTF_8);
+
+        PhotoStore.StoredBlob first = photoStore.store(new ByteArrayInputStream(content));
+        PhotoStore.StoredBlob second = photoStore.store(new ByteArrayInputStream(content));
+
+        assertEquals(first.hash(), second.hash());
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void store_shouldAbortAndKeepNothing_whenLimitExceeded() throws Exception {
+        byte[] content = new byte[20_000];
+
+        assertThrows(BlobTooLargeException.class,
+                () -> photoStore.store(new ByteArrayInputStream(content), 10_000));
+
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void resolve_shouldRejectMalformedHash() {
+        assertThrows(IllegalArgumentException.class, () -> photoStore.resolve("../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> photoStore.resolve(null));
+    }
+}